@@ -0,0 +1,79 @@
+-- Бенчмарк месячного запроса к attendance_records до и после индекса
+-- из db.changelog-1.1.sql.
+--
+-- Запуск на локальной базе (docker compose up db), в отдельной схеме,
+-- рабочие данные не затрагиваются:
+--   psql -h localhost -p 5435 -U $DB_USER -d neiro_calendar_db \
+--        -v rows=3000000 -f bench/month-query.sql
+--
+-- Сравнивать строки "Execution Time" и тип узла плана
+-- (Seq Scan -> Index Only Scan) для двух прогонов.
+--
+-- Замер 2026-10-17, rows=3000000 (PostgreSQL 16, 1 CPU, 6 ГБ; два прогона,
+-- операторы скрипта выполнены через JDBC — psql на стенде не было):
+--   before, месяц (12 796 строк): Gather Merge -> Sort -> Parallel Seq Scan
+--                                 (2 воркера, Rows Removed by Filter ~995 тыс. на процесс),
+--                                 Execution Time 424.8 / 437.7 мс
+--   after, месяц:                 Index Only Scan по idx_attendance_records_visit_date_id,
+--                                 Heap Fetches: 0, Execution Time 3.7 / 4.4 мс
+--   after, один день (~400 строк): Index Only Scan, Heap Fetches: 0,
+--                                 Execution Time 0.14 / 0.15 мс
+
+\set ON_ERROR_STOP on
+\if :{?rows}
+\else
+    \set rows 3000000
+\endif
+
+DROP SCHEMA IF EXISTS bench CASCADE;
+CREATE SCHEMA bench;
+SET search_path TO bench;
+
+-- Схема как после db.changelog-1.0.sql
+CREATE TABLE attendance_records
+(
+    id          BIGSERIAL PRIMARY KEY,
+    person_name VARCHAR(255) NOT NULL,
+    visit_date  DATE         NOT NULL,
+    attended    BOOLEAN DEFAULT FALSE
+);
+
+-- ~20 лет истории, 300 разных имён
+INSERT INTO attendance_records (person_name, visit_date, attended)
+SELECT 'Person ' || (g % 300),
+       DATE '2010-01-01' + (random() * 7300)::int,
+       random() < 0.7
+FROM generate_series(1, :rows) AS g;
+
+VACUUM ANALYZE attendance_records;
+
+\echo '=== before: primary key only ==='
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT id, person_name, visit_date, attended
+FROM attendance_records
+WHERE visit_date >= DATE '2025-03-01' AND visit_date <= DATE '2025-03-31'
+ORDER BY id;
+
+-- Миграция как в db.changelog-1.1.sql
+UPDATE attendance_records SET attended = FALSE WHERE attended IS NULL;
+ALTER TABLE attendance_records ALTER COLUMN attended SET NOT NULL;
+CREATE INDEX idx_attendance_records_visit_date_id
+    ON attendance_records (visit_date, id) INCLUDE (person_name, attended);
+
+-- Карта видимости нужна для Index Only Scan
+VACUUM ANALYZE attendance_records;
+
+\echo '=== after: covering (visit_date, id) index ==='
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT id, person_name, visit_date, attended
+FROM attendance_records
+WHERE visit_date >= DATE '2025-03-01' AND visit_date <= DATE '2025-03-31'
+ORDER BY visit_date, id;
+
+\echo '=== after: single day (findByVisitDate) ==='
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT id, person_name, visit_date, attended
+FROM attendance_records
+WHERE visit_date = DATE '2025-03-11';
+
+DROP SCHEMA bench CASCADE;
@@ -0,0 +1,85 @@
+// Нагрузочный тест изменяющих эндпоинтов (k6, https://k6.io): пропускная способность
+// /check и /mutations при разных настройках логирования. Контроллеры пишут каждое изменение
+// на INFO, поэтому логирование стоит на пути каждого запроса.
+//
+// Приложение запускается трижды, сценарий прогоняется против каждого запуска:
+//   sync:  java -jar app.jar --logging.config=<logback-spring.xml до асинхронных приёмников>
+//          (git show 79a9f22^:src/main/resources/logback-spring.xml)
+//   async: java -jar app.jar                                  — текст через AsyncAppender
+//   prod:  java -jar app.jar --spring.profiles.active=prod    — ECS JSON через AsyncAppender
+//   k6 run -e BASE_URL=http://localhost:8080 -e ENDPOINT=check     bench/mutation-load.js
+//   k6 run -e BASE_URL=http://localhost:8080 -e ENDPOINT=mutations bench/mutation-load.js
+//
+// Сравнивать http_reqs (rps) и http_req_duration p(99) из итогового отчёта.
+// Записи для изменений берутся из /export за 2020–2029 — перед прогоном их должно быть
+// несколько тысяч. /mutations — пакет из 10 операций toggle по разным записям.
+//
+// Замер 2026-10-17: ~21 тыс. записей за 2020–2029, VIRTUAL_THREADS_ENABLED=true,
+// DB_POOL_SIZE=20, 15 с прогрева + 60 с замера, два прогона каждой настройки. Сценарий повторён
+// Java-клиентом (HttpClient, виртуальный поток на клиента) — k6 на стенде не было; стенд как
+// в calendar-load.js (1 CPU, приложение, PostgreSQL и генератор нагрузки на одной машине).
+// Консоль приложения перенаправлена в файл. rps / p99:
+//   40 клиентов       /check                       /mutations
+//     sync:           171 / 680 мс, 191 / 592 мс   91 / 1071 мс, 95 / 1013 мс
+//     async:          193 / 572 мс, 248 / 413 мс   105 / 951 мс, 105 / 910 мс
+//     prod:           188 / 548 мс, 173 / 691 мс   98 / 1033 мс, 100 / 997 мс
+//   200 клиентов — пул соединений исчерпан, до 5% ответов с ошибкой по connection-timeout:
+//     sync:           242 / 3204 мс, 183 / 2885 мс  117 / 3939 мс, 98 / 5176 мс
+//     async:          158 / 5094 мс, 173 / 5067 мс  94 / 5202 мс, 93 / 5207 мс
+//     prod:           176 / 4804 мс, 194 / 4563 мс  88 / 5405 мс, 73 / 5947 мс
+// Пока пул не исчерпан, async даёт на /mutations около +10% rps и меньший p99, на /check разница
+// в пределах разброса; JSON-формат prod — между sync и async. При 200 клиентах всё упирается
+// в пул и CPU, а разница настроек логирования меньше разброса прогонов.
+
+import http from 'k6/http';
+import { check } from 'k6';
+
+const BASE_URL = __ENV.BASE_URL || 'http://localhost:8080';
+const ENDPOINT = __ENV.ENDPOINT || 'check';
+const BATCH_SIZE = 10;
+
+export const options = {
+    scenarios: {
+        mutations: {
+            executor: 'constant-vus',
+            vus: Number(__ENV.VUS || 200),
+            duration: __ENV.DURATION || '1m',
+        },
+    },
+    summaryTrendStats: ['avg', 'p(50)', 'p(95)', 'p(99)', 'max'],
+};
+
+export function setup() {
+    const res = http.get(`${BASE_URL}/api/v1/calendar/export?start=2020-01-01&end=2029-12-31&format=ndjson`,
+        { responseType: 'text', timeout: '120s' });
+    const ids = res.body.split('\n').filter((line) => line).map((line) => JSON.parse(line).id);
+    if (ids.length < BATCH_SIZE) {
+        throw new Error(`нужно не меньше ${BATCH_SIZE} записей за 2020–2029, найдено ${ids.length}`);
+    }
+    return { ids };
+}
+
+function randomId(ids) {
+    return ids[Math.floor(Math.random() * ids.length)];
+}
+
+export default function ({ ids }) {
+    let res;
+    if (ENDPOINT === 'check') {
+        res = http.post(`${BASE_URL}/api/v1/calendar/check?recordId=${randomId(ids)}`);
+    } else {
+        const recordIds = new Set();
+        while (recordIds.size < BATCH_SIZE) {
+            recordIds.add(randomId(ids));
+        }
+        const operations = [...recordIds].map((recordId) => ({
+            key: `${__VU}-${__ITER}-${recordId}-${Date.now()}`,
+            type: 'toggle',
+            recordId,
+            attended: Math.random() < 0.5,
+        }));
+        res = http.post(`${BASE_URL}/api/v1/calendar/mutations`, JSON.stringify({ operations }),
+            { headers: { 'Content-Type': 'application/json' } });
+    }
+    check(res, { 'status is 200': (r) => r.status === 200 });
+}
@@ -0,0 +1,66 @@
+package ru.greemlab.neirocalendar.controller;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import ru.greemlab.neirocalendar.domain.dto.AttendanceRecordDto;
+import ru.greemlab.neirocalendar.domain.dto.DayCellDto;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Бенчмарк построения сетки календаря и наименований месяцев.
+ * Лежит в пакете контроллеров, чтобы вызывать protected-методы AbstractCalendarController.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class CalendarGridBenchmark {
+
+    private static final int YEAR = 2025;
+    private static final int MONTH = 3;
+
+    /**
+     * Количество записей за месяц
+     */
+    @Param({"1000", "10000", "100000"})
+    private int recordCount;
+
+    private AbstractCalendarController controller;
+    private List<AttendanceRecordDto> records;
+
+    @Setup
+    public void setUp() {
+        // Зависимости не нужны: измеряем только построение сетки в памяти, ячейки не рендерятся
+        controller = new CalendarController(null, null, null, null, null);
+
+        var random = new Random(42);
+        var firstOfMonth = LocalDate.of(YEAR, MONTH, 1);
+        records = new ArrayList<>(recordCount);
+        for (int i = 0; i < recordCount; i++) {
+            var date = firstOfMonth.plusDays(random.nextInt(firstOfMonth.lengthOfMonth()));
+            records.add(new AttendanceRecordDto((long) i, (long) (i % 300), "Person " + (i % 300), date, random.nextBoolean(), 0L));
+        }
+    }
+
+    @Benchmark
+    public List<List<DayCellDto>> buildCalendarGrid() {
+        return controller.buildCalendarGrid(YEAR, MONTH, records);
+    }
+
+    /**
+     * Сетка только из разрешённых дней — как для шаблона calendar.html
+     */
+    @Benchmark
+    public List<List<DayCellDto>> buildAllowedDaysGrid() {
+        return controller.onlyAllowedDays(controller.buildCalendarGrid(YEAR, MONTH, records));
+    }
+
+    @Benchmark
+    public void getMonthNames(Blackhole blackhole) {
+        blackhole.consume(CalendarMetadataRegistry.getDefault().monthNames());
+    }
+}
@@ -0,0 +1,60 @@
+package ru.greemlab.neirocalendar.logging;
+
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.joran.JoranConfigurator;
+import org.openjdk.jmh.annotations.*;
+import org.slf4j.Logger;
+import org.slf4j.event.Level;
+
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Бенчмарк стоимости лог-сообщения об изменении записи в потоке запроса
+ * (как log-вызовы в CalendarController/CalendarRestController) при разных настройках логирования:
+ * <ul>
+ *     <li>config=sync, level=INFO — прежняя схема: INFO в синхронный файловый приёмник;</li>
+ *     <li>config=async, level=INFO — текущие вызовы в контроллерах: INFO через AsyncAppender с ограниченной очередью;</li>
+ *     <li>level=DEBUG — для сравнения: сообщение ниже уровня логгера отбрасывается сразу.</li>
+ * </ul>
+ * Измеряется только сам вызов логгера, без HTTP, транзакции и БД — это не пропускная способность
+ * изменяющих эндпоинтов, а верхняя граница того, сколько из неё может забрать логирование.
+ * Пропускная способность самих /check и /mutations — bench/mutation-load.js.
+ * Консольный приёмник не используется, чтобы не смешивать вывод с отчётом JMH.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Threads(4)
+public class MutationLoggingBenchmark {
+
+    @Param({"sync", "async"})
+    private String config;
+
+    @Param({"INFO", "DEBUG"})
+    private Level level;
+
+    private final LocalDate date = LocalDate.of(2025, 3, 4);
+
+    private LoggerContext context;
+    private Logger log;
+
+    @Setup
+    public void setUp() throws Exception {
+        context = new LoggerContext();
+        var configurator = new JoranConfigurator();
+        configurator.setContext(context);
+        configurator.doConfigure(getClass().getResource("/logback-bench-" + config + ".xml"));
+        log = context.getLogger("ru.greemlab.neirocalendar.controller.CalendarRestController");
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.stop();
+    }
+
+    @Benchmark
+    public void logMutation() {
+        log.atLevel(level).log("Добавление записи посещаемости: personName={}, date={}", "Person 42", date);
+    }
+}
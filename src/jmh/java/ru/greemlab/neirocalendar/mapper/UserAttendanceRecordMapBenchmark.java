@@ -0,0 +1,81 @@
+package ru.greemlab.neirocalendar.mapper;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import ru.greemlab.neirocalendar.domain.entity.AttendanceRecord;
+import ru.greemlab.neirocalendar.domain.entity.Person;
+import ru.greemlab.neirocalendar.repository.PersonRepository;
+import ru.greemlab.neirocalendar.repository.projection.AttendanceRecordRow;
+import ru.greemlab.neirocalendar.service.PersonDirectory;
+
+import java.lang.reflect.Proxy;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Бенчмарк преобразования Entity -> DTO на синтетических наборах записей.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class UserAttendanceRecordMapBenchmark {
+
+    private static final int PEOPLE = 300;
+
+    @Param({"1000", "100000", "1000000"})
+    private int recordCount;
+
+    private UserAttendanceRecordMap mapper;
+    private List<AttendanceRecord> entities;
+    private List<AttendanceRecordRow> rows;
+
+    @Setup
+    public void setUp() {
+        // Справочник заполняется один раз, как при старте приложения; БД не нужна
+        var people = new ArrayList<Person>(PEOPLE);
+        for (long id = 0; id < PEOPLE; id++) {
+            people.add(new Person(id, "Person " + id));
+        }
+        var repository = (PersonRepository) Proxy.newProxyInstance(
+                PersonRepository.class.getClassLoader(),
+                new Class<?>[]{PersonRepository.class},
+                (proxy, method, args) -> {
+                    if (method.getName().equals("findAll") && method.getParameterCount() == 0) {
+                        return people;
+                    }
+                    throw new UnsupportedOperationException(method.getName());
+                });
+        var directory = new PersonDirectory(repository);
+        directory.preload();
+        mapper = new UserAttendanceRecordMap(directory);
+
+        var start = LocalDate.of(2020, 1, 1);
+        entities = new ArrayList<>(recordCount);
+        rows = new ArrayList<>(recordCount);
+        for (int i = 0; i < recordCount; i++) {
+            long personId = i % PEOPLE;
+            var date = start.plusDays(i % 2000);
+            entities.add(new AttendanceRecord((long) i, personId, date, i % 3 == 0, 0L));
+            rows.add(new AttendanceRecordRow((long) i, personId, date, i % 3 == 0, 0L));
+        }
+    }
+
+    @Benchmark
+    public void toDto(Blackhole blackhole) {
+        for (var entity : entities) {
+            blackhole.consume(mapper.toDto(entity));
+        }
+    }
+
+    /**
+     * Основной путь чтения: строки-проекции из findRowsByVisitDateBetween
+     */
+    @Benchmark
+    public void rowToDto(Blackhole blackhole) {
+        for (var row : rows) {
+            blackhole.consume(mapper.toDto(row));
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package ru.greemlab.neirocalendar.config;
+
+import org.springframework.aot.AotDetector;
+import org.springframework.aot.generate.GeneratedFiles;
+import org.springframework.beans.factory.aot.BeanFactoryInitializationAotContribution;
+import org.springframework.beans.factory.aot.BeanFactoryInitializationAotProcessor;
+import org.springframework.beans.factory.config.BeanFactoryPostProcessor;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.context.EnvironmentAware;
+import org.springframework.core.env.Environment;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Properties;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Останавливает запуск с AOT-классами (-Dspring.aot.enabled=true), если активные профили или
+ * spring.threads.virtual.enabled отличаются от тех, с которыми выполнялся processAot.
+ * AOT вычисляет @Profile и @ConditionalOn... на сборке: с другими значениями приложение молча
+ * поднялось бы с конфигурацией сборки — например, на пуле платформенных потоков при VIRTUAL_THREADS_ENABLED=true.
+ * Значения сборки записывает {@link Recorder} (META-INF/spring/aot.factories).
+ * Без AOT-классов проверка не выполняется.
+ */
+@Component
+public class AotEnvironmentGuard implements BeanFactoryPostProcessor, EnvironmentAware {
+
+    private static final String BUILD_ENVIRONMENT = "META-INF/neiro-calendar/aot-environment.properties";
+
+    private static final String PROFILES = "profiles";
+    private static final String VIRTUAL_THREADS = "virtual-threads";
+    private static final String VIRTUAL_THREADS_PROPERTY = "spring.threads.virtual.enabled";
+
+    private Environment environment;
+
+    @Override
+    public void setEnvironment(Environment environment) {
+        this.environment = environment;
+    }
+
+    @Override
+    public void postProcessBeanFactory(ConfigurableListableBeanFactory beanFactory) {
+        var resource = new ClassPathResource(BUILD_ENVIRONMENT);
+        if (!AotDetector.useGeneratedArtifacts() || !resource.exists()) {
+            return;
+        }
+        var build = new Properties();
+        try (var in = resource.getInputStream()) {
+            build.load(in);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        var buildProfiles = profiles(build.getProperty(PROFILES, "").split(","));
+        var runProfiles = profiles(environment.getActiveProfiles());
+        var buildVirtualThreads = Boolean.parseBoolean(build.getProperty(VIRTUAL_THREADS));
+        var runVirtualThreads = virtualThreads(environment);
+        if (!buildProfiles.equals(runProfiles) || buildVirtualThreads != runVirtualThreads) {
+            throw new IllegalStateException(("AOT-классы собраны с профилями %s и %s=%s, а запуск — с профилями %s и %s=%s. "
+                    + "Запустите с теми же значениями, пересоберите jar (processAot) или запустите без -Dspring.aot.enabled=true")
+                    .formatted(buildProfiles, VIRTUAL_THREADS_PROPERTY, buildVirtualThreads,
+                            runProfiles, VIRTUAL_THREADS_PROPERTY, runVirtualThreads));
+        }
+    }
+
+    private static Set<String> profiles(String... profiles) {
+        var result = new TreeSet<String>();
+        Arrays.stream(profiles).map(String::strip).filter(p -> !p.isEmpty()).forEach(result::add);
+        return result;
+    }
+
+    private static boolean virtualThreads(Environment environment) {
+        return environment.getProperty(VIRTUAL_THREADS_PROPERTY, Boolean.class, false);
+    }
+
+    /**
+     * Записывает профили и spring.threads.virtual.enabled сборки в ресурс рядом с AOT-классами
+     */
+    static class Recorder implements BeanFactoryInitializationAotProcessor {
+
+        @Override
+        public BeanFactoryInitializationAotContribution processAheadOfTime(ConfigurableListableBeanFactory beanFactory) {
+            var environment = beanFactory.getBean(Environment.class);
+            var content = "%s=%s%n%s=%s%n".formatted(
+                    PROFILES, String.join(",", profiles(environment.getActiveProfiles())),
+                    VIRTUAL_THREADS, virtualThreads(environment));
+            // processTestAot обрабатывает по контексту на конфигурацию тестов — ресурс перезаписывается
+            return (generationContext, code) -> generationContext.getGeneratedFiles().handleFile(
+                    GeneratedFiles.Kind.RESOURCE, BUILD_ENVIRONMENT,
+                    file -> file.override(new ByteArrayResource(content.getBytes(StandardCharsets.UTF_8))));
+        }
+    }
+}
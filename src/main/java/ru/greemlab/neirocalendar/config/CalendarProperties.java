@@ -0,0 +1,84 @@
+package ru.greemlab.neirocalendar.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Настройки календаря (префикс "calendar" в application.yml).
+ *
+ * @param booking   настройки повторяющейся записи на занятия
+ * @param cache     настройки кэша месяцев календаря
+ * @param mutations настройки пакетных изменений (/mutations)
+ * @param events    настройки потока изменений (/events)
+ * @param replica   реплика БД для readOnly-транзакций
+ */
+@ConfigurationProperties(prefix = "calendar")
+public record CalendarProperties(
+        @DefaultValue Booking booking,
+        @DefaultValue Cache cache,
+        @DefaultValue Mutations mutations,
+        @DefaultValue Events events,
+        @DefaultValue Replica replica
+) {
+
+    /**
+     * @param horizonMonths на сколько месяцев вперёд создаются еженедельные записи
+     */
+    public record Booking(
+            @DefaultValue("3") int horizonMonths
+    ) {
+    }
+
+    /**
+     * @param maxMonths сколько месяцев календаря держать в памяти
+     * @param maxCells  сколько отрендеренных ячеек дня (HTML) держать в памяти
+     */
+    public record Cache(
+            @DefaultValue("24") int maxMonths,
+            @DefaultValue("2048") int maxCells
+    ) {
+    }
+
+    /**
+     * @param idempotencyTtl сколько хранить ключи идемпотентности: повтор с тем же ключом
+     *                       в этот срок не применяется повторно
+     */
+    public record Mutations(
+            @DefaultValue("48h") Duration idempotencyTtl
+    ) {
+    }
+
+    /**
+     * @param bufferSize    сколько сообщений ждут отправки одному подписчику; отстающий сверх этого
+     *                      отключается и перезагружает страницу
+     * @param streamTimeout через сколько соединение закрывается (браузер переподключается сам)
+     */
+    public record Events(
+            @DefaultValue("256") int bufferSize,
+            @DefaultValue("30m") Duration streamTimeout
+    ) {
+    }
+
+    /**
+     * @param url             JDBC URL реплики; пусто — реплики нет, все соединения к основной БД
+     * @param username        пользователь реплики
+     * @param password        пароль реплики
+     * @param maximumPoolSize размер пула соединений к реплике (остальные настройки пула — как у основной БД)
+     * @param stickyWindow    сколько после фиксации пишущей транзакции readOnly-транзакции идут в основную БД:
+     *                        реплика догоняет с задержкой, а изменение сразу перечитывают все открытые страницы
+     */
+    public record Replica(
+            String url,
+            String username,
+            String password,
+            @DefaultValue("10") int maximumPoolSize,
+            @DefaultValue("5s") Duration stickyWindow
+    ) {
+
+        public boolean enabled() {
+            return url != null && !url.isBlank();
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package ru.greemlab.neirocalendar.config;
+
+import liquibase.integration.spring.SpringLiquibase;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.HexFormat;
+
+/**
+ * Пропускает Liquibase при старте, если файлы changelog не менялись с последнего успешного прогона.
+ * Без изменений Liquibase всё равно разбирает все changelog-и, берёт блокировку и сверяет
+ * DATABASECHANGELOG — на маленьком контейнере это заметная часть старта.
+ * Контрольная сумма файлов сверяется с таблицей changelog_state и записывается туда после прогона.
+ * Чтобы прогнать Liquibase принудительно, достаточно удалить строки из changelog_state.
+ */
+@Slf4j
+public class ChangelogChecksumGuard implements BeanPostProcessor {
+
+    private static final String CHANGELOG_DIR = "db/changelog/";
+
+    private static final String FIND_SQL = "SELECT EXISTS (SELECT 1 FROM changelog_state WHERE checksum = ?)";
+
+    private static final String SAVE_SQL = "INSERT INTO changelog_state (checksum) VALUES (?) ON CONFLICT DO NOTHING";
+
+    /**
+     * spring.liquibase.enabled: выключенный Liquibase не трогаем и БД не опрашиваем
+     */
+    private final boolean enabled;
+
+    /**
+     * Сумма changelog-ов, которые Liquibase применяет в этом запуске; null — прогона нет
+     */
+    private String pendingChecksum;
+
+    public ChangelogChecksumGuard(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    @Override
+    public Object postProcessBeforeInitialization(Object bean, String beanName) {
+        if (!enabled || !(bean instanceof SpringLiquibase liquibase)) {
+            return bean;
+        }
+        var checksum = changelogChecksum();
+        if (isApplied(new JdbcTemplate(liquibase.getDataSource()), checksum)) {
+            log.info("Changelog checksum {} is already applied, skipping Liquibase", checksum);
+            liquibase.setShouldRun(false);
+        } else {
+            pendingChecksum = checksum;
+        }
+        return bean;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        // Сюда доходим только после успешного прогона: ошибка миграции прерывает старт
+        if (pendingChecksum != null && bean instanceof SpringLiquibase liquibase) {
+            new JdbcTemplate(liquibase.getDataSource()).update(SAVE_SQL, pendingChecksum);
+            pendingChecksum = null;
+        }
+        return bean;
+    }
+
+    private static boolean isApplied(JdbcTemplate jdbcTemplate, String checksum) {
+        try {
+            return Boolean.TRUE.equals(jdbcTemplate.queryForObject(FIND_SQL, Boolean.class, checksum));
+        } catch (DataAccessException e) {
+            // Таблицы ещё нет (пустая БД или миграция, которая её создаёт, не применена)
+            log.debug("Changelog state is unavailable, running Liquibase: {}", e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * SHA-256 по путям и содержимому всех файлов db/changelog в порядке путей
+     */
+    private static String changelogChecksum() {
+        try {
+            var resources = new PathMatchingResourcePatternResolver(ChangelogChecksumGuard.class.getClassLoader())
+                    .getResources("classpath*:" + CHANGELOG_DIR + "**/*.*");
+            Arrays.sort(resources, (a, b) -> relativePath(a).compareTo(relativePath(b)));
+            var digest = MessageDigest.getInstance("SHA-256");
+            for (var resource : resources) {
+                digest.update(relativePath(resource).getBytes(StandardCharsets.UTF_8));
+                try (var in = resource.getInputStream()) {
+                    digest.update(in.readAllBytes());
+                }
+            }
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Путь внутри db/changelog — одинаковый для каталога классов и jar
+     */
+    private static String relativePath(Resource resource) {
+        try {
+            var url = resource.getURL().toString();
+            return url.substring(url.lastIndexOf(CHANGELOG_DIR) + CHANGELOG_DIR.length());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package ru.greemlab.neirocalendar.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import javax.sql.DataSource;
+
+/**
+ * Источник соединений: пул основной БД (spring.datasource) и, если задан calendar.replica.url,
+ * пул реплики для readOnly-транзакций (см. ReplicaRoutingDataSource).
+ * Реплика включается проверкой при создании бина, а не @ConditionalOnProperty: в AOT-сборке
+ * (fast-start) условие вычислилось бы на этапе сборки, а адрес реплики задаётся при запуске.
+ * Пулы создаются без соединений — первое открывается при первом запросе.
+ */
+@Slf4j
+@Configuration(proxyBeanMethods = false)
+public class DataSourceConfiguration {
+
+    private static final String HIKARI_PREFIX = "spring.datasource.hikari";
+
+    @Bean
+    public DataSource dataSource(DataSourceProperties properties, Environment environment,
+                                 CalendarProperties calendarProperties, MeterRegistry registry) {
+        var primary = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        // spring.datasource.hikari — так же, как в автоконфигурации Spring Boot
+        Binder.get(environment).bind(HIKARI_PREFIX, Bindable.ofInstance(primary));
+        var replicaProperties = calendarProperties.replica();
+        if (!replicaProperties.enabled()) {
+            return primary;
+        }
+
+        if (primary.getPoolName() == null) {
+            primary.setPoolName("primary");
+        }
+        // Метрики hikaricp.* с тегом pool: Spring Boot сам привязывает только пул, который видит через бин
+        primary.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(registry));
+
+        var replica = new HikariDataSource();
+        primary.copyStateTo(replica);
+        replica.setPoolName("replica");
+        replica.setJdbcUrl(replicaProperties.url());
+        replica.setUsername(replicaProperties.username());
+        replica.setPassword(replicaProperties.password());
+        replica.setMaximumPoolSize(replicaProperties.maximumPoolSize());
+        // Запись в реплику — ошибка маршрутизации; пусть она упадёт, а не уйдёт молча
+        replica.setReadOnly(true);
+
+        log.info("Read-only transactions are routed to replica {} (sticky window {})",
+                replicaProperties.url(), replicaProperties.stickyWindow());
+        return new ReplicaRoutingDataSource(primary, replica, replicaProperties.stickyWindow(), registry);
+    }
+}
@@ -0,0 +1,62 @@
+package ru.greemlab.neirocalendar.config;
+
+import org.springframework.beans.factory.annotation.AnnotatedBeanDefinition;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.config.BeanFactoryPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.env.Environment;
+
+/**
+ * Профиль быстрого старта (fast-start): то, что не нужно для первых запросов, откладывается или пропускается.
+ * Остальные настройки профиля — в application-fast-start.yml.
+ * При сборке с Spring AOT (processAot) условия @Profile и @ConditionalOn... вычисляются на этапе сборки,
+ * поэтому AOT-классы собираются с тем же профилем, с которым приложение запускается (см. AotEnvironmentGuard).
+ */
+@Configuration(proxyBeanMethods = false)
+@Profile("fast-start")
+public class FastStartConfiguration {
+
+    private static final String SPRINGDOC_PACKAGE = "org.springdoc.";
+
+    /**
+     * Проставляет версию webjar Swagger UI в afterPropertiesSet, а сам никому не нужен:
+     * ленивым он бы не создался, и /swagger-ui/index.html отдавал бы 404
+     */
+    private static final String SWAGGER_UI_VERSION_BEAN = "org.springdoc.core.configuration.SpringDocUIConfiguration";
+
+    /**
+     * Бины springdoc создаются при первом обращении к /v3/api-docs или /swagger-ui, а не при старте
+     */
+    @Bean
+    static BeanFactoryPostProcessor lazySpringdocBeans() {
+        return beanFactory -> {
+            for (var name : beanFactory.getBeanDefinitionNames()) {
+                var definition = beanFactory.getBeanDefinition(name);
+                if (isSpringdoc(definition)) {
+                    definition.setLazyInit(true);
+                }
+            }
+        };
+    }
+
+    /**
+     * Liquibase запускается, только если changelog изменился
+     */
+    @Bean
+    static ChangelogChecksumGuard changelogChecksumGuard(Environment environment) {
+        return new ChangelogChecksumGuard(environment.getProperty("spring.liquibase.enabled", Boolean.class, true));
+    }
+
+    private static boolean isSpringdoc(BeanDefinition definition) {
+        var className = definition.getBeanClassName();
+        // Для @Bean-методов автоконфигураций springdoc — класс, в котором объявлен метод
+        if (definition instanceof AnnotatedBeanDefinition annotated && annotated.getFactoryMethodMetadata() != null) {
+            className = annotated.getFactoryMethodMetadata().getDeclaringClassName();
+        }
+        return className != null
+                && className.startsWith(SPRINGDOC_PACKAGE)
+                && !className.equals(SWAGGER_UI_VERSION_BEAN);
+    }
+}
@@ -0,0 +1,130 @@
+package ru.greemlab.neirocalendar.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.Connection;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Соединения readOnly-транзакций — из пула реплики, остальные — из пула основной БД.
+ * Пул выбирается при первом запросе к БД, а не при открытии транзакции: к этому моменту
+ * JpaTransactionManager уже отметил транзакцию как readOnly.
+ * <p>
+ * Read-your-writes: после фиксации любой пишущей транзакции readOnly-транзакции ещё stickyWindow
+ * читают основную БД. Окно общее, а не на клиента: изменение по потоку /events сразу перечитывают
+ * все открытые страницы, и кэш месяца заполняется заново — всё это должно видеть запись.
+ * Запись вне транзакции (autocommit) окно не открывает.
+ */
+public class ReplicaRoutingDataSource extends LazyConnectionDataSourceProxy implements AutoCloseable {
+
+    /**
+     * Ключи маршрутов — они же имена в /actuator/health (db.primary, db.replica) и тег route метрик
+     */
+    private static final String PRIMARY = "primary";
+    private static final String REPLICA = "replica";
+
+    private final HikariDataSource primary;
+    private final HikariDataSource replica;
+    private final long stickyWindowNanos;
+
+    /**
+     * System.nanoTime(), до которого readOnly-транзакции идут в основную БД
+     */
+    private final AtomicLong stickyUntil = new AtomicLong(System.nanoTime());
+
+    /**
+     * Окно открывается уже перед фиксацией: afterCommit-обработчики (сброс кэша месяца в
+     * CalendarMonthCache, HIGHEST_PRECEDENCE) могут выполниться раньше нашего afterCommit,
+     * и месяц, перестроенный в этом промежутке, прочитался бы с отстающей реплики и остался в кэше.
+     * После фиксации окно продлевается: отсчёт stickyWindow — от момента, когда запись видна на основной БД.
+     */
+    private final TransactionSynchronization stickAroundCommit = new TransactionSynchronization() {
+        @Override
+        public void beforeCommit(boolean readOnly) {
+            stick();
+        }
+
+        @Override
+        public void afterCommit() {
+            stick();
+        }
+    };
+
+    private final Counter writes;
+    private final Counter stickyReads;
+    private final Counter replicaReads;
+
+    public ReplicaRoutingDataSource(HikariDataSource primary, HikariDataSource replica,
+                                    Duration stickyWindow, MeterRegistry registry) {
+        this.primary = primary;
+        this.replica = replica;
+        this.stickyWindowNanos = stickyWindow.toNanos();
+        this.writes = routeCounter(registry, PRIMARY, "write");
+        this.stickyReads = routeCounter(registry, PRIMARY, "sticky");
+        this.replicaReads = routeCounter(registry, REPLICA, "read");
+
+        var router = new Router();
+        router.setTargetDataSources(Map.of(PRIMARY, primary, REPLICA, replica));
+        router.setDefaultTargetDataSource(primary);
+        router.afterPropertiesSet();
+        setTargetDataSource(router);
+        // Заданы явно — иначе прокси открыл бы соединение при старте, чтобы их узнать
+        setDefaultAutoCommit(true);
+        setDefaultTransactionIsolation(Connection.TRANSACTION_READ_COMMITTED);
+    }
+
+    @Override
+    public void close() {
+        replica.close();
+        primary.close();
+    }
+
+    /**
+     * Ключ маршрута для соединения текущего потока
+     */
+    String route() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            if (TransactionSynchronizationManager.isSynchronizationActive()) {
+                TransactionSynchronizationManager.registerSynchronization(stickAroundCommit);
+            }
+            writes.increment();
+            return PRIMARY;
+        }
+        if (System.nanoTime() - stickyUntil.get() < 0) {
+            stickyReads.increment();
+            return PRIMARY;
+        }
+        replicaReads.increment();
+        return REPLICA;
+    }
+
+    private void stick() {
+        var until = System.nanoTime() + stickyWindowNanos;
+        stickyUntil.accumulateAndGet(until, (current, next) -> next - current > 0 ? next : current);
+    }
+
+    private static Counter routeCounter(MeterRegistry registry, String route, String reason) {
+        return Counter.builder("calendar.datasource.routes")
+                .description("Соединений выдано по маршруту: write — пишущая транзакция или без транзакции, "
+                        + "sticky — чтение в окне после записи, read — чтение с реплики")
+                .tag("route", route)
+                .tag("reason", reason)
+                .register(registry);
+    }
+
+    private final class Router extends AbstractRoutingDataSource {
+
+        @Override
+        protected Object determineCurrentLookupKey() {
+            return route();
+        }
+    }
+}
@@ -1,25 +1,37 @@
 package ru.greemlab.neirocalendar.controller;
 
+import org.springframework.core.task.AsyncTaskExecutor;
 import ru.greemlab.neirocalendar.domain.dto.AttendanceRecordDto;
 import ru.greemlab.neirocalendar.domain.dto.CalendarDataDto;
 import ru.greemlab.neirocalendar.domain.dto.DayCellDto;
 import ru.greemlab.neirocalendar.domain.dto.MonthContext;
+import ru.greemlab.neirocalendar.service.CalendarGridTemplate;
+import ru.greemlab.neirocalendar.service.CalendarMonthCache;
+import ru.greemlab.neirocalendar.service.CalendarMonthVersions;
 import ru.greemlab.neirocalendar.service.CalendarService;
 
 import java.time.DayOfWeek;
 import java.time.LocalDate;
-import java.time.Month;
-import java.time.format.TextStyle;
+import java.time.YearMonth;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 /**
  * Абстрактный базовый контроллер для работы с календарём.
- * Содержит общую логику для построения календарной сетки, получения
- * диапазона дат выбранного месяца и форматирование наименований месяцев.
+ * Содержит общую логику для построения календарной сетки и получения
+ * диапазона дат выбранного месяца. Названия месяцев и дней — в CalendarMetadataRegistry.
  */
 public abstract class AbstractCalendarController {
 
     protected final CalendarService calendarService;
+    protected final CalendarMonthCache monthCache;
+    protected final CalendarMonthVersions monthVersions;
+
+    /**
+     * applicationTaskExecutor: при VIRTUAL_THREADS_ENABLED=true — виртуальный поток на задачу
+     */
+    protected final AsyncTaskExecutor taskExecutor;
 
     // Константа с разрешёнными днями для записи занятий
     protected static final Set<DayOfWeek> ALLOWED_DAYS = Set.of(
@@ -29,8 +41,18 @@ public abstract class AbstractCalendarController {
             DayOfWeek.SUNDAY
     );
 
-    public AbstractCalendarController(CalendarService calendarService) {
+    // Номера столбцов сетки (0 — понедельник) для разрешённых дней, по порядку
+    private static final int[] ALLOWED_COLUMNS = ALLOWED_DAYS.stream()
+            .mapToInt(day -> day.getValue() - 1)
+            .sorted()
+            .toArray();
+
+    public AbstractCalendarController(CalendarService calendarService, CalendarMonthCache monthCache,
+                                      CalendarMonthVersions monthVersions, AsyncTaskExecutor taskExecutor) {
         this.calendarService = calendarService;
+        this.monthCache = monthCache;
+        this.monthVersions = monthVersions;
+        this.taskExecutor = taskExecutor;
     }
 
     /**
@@ -55,78 +77,90 @@ public abstract class AbstractCalendarController {
 
     /**
      * Строит 2D-сетку календаря – список недель, каждая неделя представлена списком дней.
-     * Для формирования первой недели подбираются предыдущие дни, чтобы неделя начиналась с понедельника.
+     * Неделя начинается с понедельника; даты ячеек берутся из закэшированного каркаса месяца,
+     * а записи раскладываются по индексу дня в сетке.
      *
-     * @param year       выбранный год
-     * @param month      выбранный месяц
-     * @param recordsMap карта записей посещаемости, сгруппированных по дате
-     * @return 2D список объектов DayCellDto
+     * @param year    выбранный год
+     * @param month   выбранный месяц
+     * @param records записи посещаемости
+     * @return неизменяемый 2D список объектов DayCellDto (6 недель по 7 дней)
      */
-    protected List<List<DayCellDto>> buildCalendarGrid(int year, int month,
-                                                       Map<LocalDate, List<AttendanceRecordDto>> recordsMap) {
-        List<List<DayCellDto>> result = new ArrayList<>();
-        var firstOfMonth = LocalDate.of(year, month, 1);
-        var firstDayDow = firstOfMonth.getDayOfWeek().getValue();
-        var start = firstOfMonth.minusDays(firstDayDow - 1);
-
-        final int WEEKS_TO_SHOW = 6;
-        var current = start;
-        for (int w = 0; w < WEEKS_TO_SHOW; w++) {
-            List<DayCellDto> weekRow = new ArrayList<>(7);
-            for (int d = 0; d < 7; d++) {
-                var inCurrentMonth = current.getYear() == year && current.getMonthValue() == month;
-                var recs = recordsMap.getOrDefault(current, List.of());
-                weekRow.add(new DayCellDto(current, inCurrentMonth, recs));
-                current = current.plusDays(1);
-            }
-            result.add(weekRow);
-        }
-        return result;
+    protected List<List<DayCellDto>> buildCalendarGrid(int year, int month, List<AttendanceRecordDto> records) {
+        return CalendarGridTemplate.of(year, month).fill(records);
     }
 
     /**
-     * Формирует отображение наименований месяцев на русском языке.
+     * Оставляет в сетке только разрешённые дни недели (ALLOWED_DAYS).
      *
-     * @return LinkedHashMap, где ключ — номер месяца (1-12), значение — название месяца
+     * @param weeks полная сетка (7 дней в неделе)
+     * @return сетка только из разрешённых дней
      */
-    protected LinkedHashMap<Integer, String> getMonthNames() {
-        LinkedHashMap<Integer, String> map = new LinkedHashMap<>();
-        for (int i = 1; i <= 12; i++) {
-            var name = Month.of(i)
-                    .getDisplayName(TextStyle.FULL_STANDALONE, Locale.forLanguageTag("ru-RU"));
-            name = name.substring(0, 1).toUpperCase() + name.substring(1);
-            map.put(i, name);
-        }
-        return map;
+    protected List<List<DayCellDto>> onlyAllowedDays(List<List<DayCellDto>> weeks) {
+        return CalendarGridTemplate.selectColumns(weeks, ALLOWED_COLUMNS);
+    }
+
+    /**
+     * Возвращает ETag текущей версии выбранного месяца, не обращаясь к БД.
+     *
+     * @param year  выбранный год
+     * @param month выбранный месяц
+     * @return ETag месяца
+     */
+    protected String monthEtag(Integer year, Integer month) {
+        var ctx = getMonthContext(year, month);
+        return monthVersions.etag(YearMonth.of(ctx.year(), ctx.month()));
     }
 
+    /**
+     * Возвращает данные календаря за месяц из кэша; при промахе строит их заново.
+     *
+     * @param year  выбранный год
+     * @param month выбранный месяц
+     * @return данные календаря за месяц
+     */
     protected CalendarDataDto prepareCalendarData(Integer year, Integer month) {
         // Текущая дата по умолчанию
         var ctx = getMonthContext(year, month);
+        return monthCache.get(YearMonth.of(ctx.year(), ctx.month()), ym -> buildCalendarData(ctx));
+    }
 
-        // Получаем все записи за выбранный месяц
-        var monthlyRecords = calendarService.getRecordsBetween(ctx.startOfMonth(), ctx.endOfMonth());
+    private CalendarDataDto buildCalendarData(MonthContext ctx) {
+        var grid = CalendarGridTemplate.of(ctx.year(), ctx.month());
 
-        // Группируем записи по датам
-        Map<LocalDate, List<AttendanceRecordDto>> recordsByDate = new HashMap<>();
-        for (var rec : monthlyRecords) {
-            recordsByDate.computeIfAbsent(rec.visitDate(), k -> new ArrayList<>()).add(rec);
-        }
+        // Итоги только за выбранный месяц — из daily_rollups (заработок по тарифам).
+        // Запрос не зависит от записей, поэтому идёт параллельно с ними в applicationTaskExecutor
+        var totalsFuture = CompletableFuture.supplyAsync(
+                () -> calendarService.getTotalsBetween(ctx.startOfMonth(), ctx.endOfMonth()), taskExecutor);
 
-        // Строим сетку календаря (максимум 6 недель, 7 дней в неделе)
-        List<List<DayCellDto>> weeks = buildCalendarGrid(ctx.year(), ctx.month(), recordsByDate);
+        // Одним запросом получаем записи за всё видимое окно сетки,
+        // включая крайние дни соседних месяцев
+        var visibleRecords = calendarService.getRecordsBetween(grid.start(), grid.end());
 
-        // Итоговые расчёты
-        var totalCost = calendarService.calculateTotalCost(ctx.startOfMonth(), ctx.endOfMonth());
-        var attendedCount = monthlyRecords.stream().filter(r -> Boolean.TRUE.equals(r.attended())).count();
+        // Строим сетку календаря (6 недель, 7 дней в неделе)
+        var weeks = buildCalendarGrid(ctx.year(), ctx.month(), visibleRecords);
+
+        var totals = join(totalsFuture);
 
         return CalendarDataDto.builder()
                 .year(ctx.year())
                 .month(ctx.month())
                 .weeks(weeks)
-                .totalCost(totalCost)
-                .attendedCount(attendedCount)
-                .monthNames(getMonthNames())
+                .totalCost(totals.totalCost())
+                .attendedCount(totals.attendedCount())
                 .build();
     }
+
+    /**
+     * Результат задачи; исключение задачи пробрасывается как есть, а не в CompletionException
+     */
+    private static <T> T join(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
 }
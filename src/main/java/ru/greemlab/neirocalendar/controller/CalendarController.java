@@ -1,10 +1,20 @@
 package ru.greemlab.neirocalendar.controller;
 
 import lombok.extern.slf4j.Slf4j;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.task.AsyncTaskExecutor;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.server.ResponseStatusException;
+import ru.greemlab.neirocalendar.service.CalendarMonthCache;
+import ru.greemlab.neirocalendar.service.CalendarMonthVersions;
 import ru.greemlab.neirocalendar.service.CalendarService;
 
 import java.time.LocalDate;
@@ -19,8 +29,13 @@ import java.util.List;
 @RequestMapping("/calendar")
 public class CalendarController extends AbstractCalendarController {
 
-    public CalendarController(CalendarService calendarService) {
-        super(calendarService);
+    private final DayCellRenderer cellRenderer;
+
+    public CalendarController(CalendarService calendarService, CalendarMonthCache monthCache,
+                              CalendarMonthVersions monthVersions, DayCellRenderer cellRenderer,
+                              @Qualifier("applicationTaskExecutor") AsyncTaskExecutor taskExecutor) {
+        super(calendarService, monthCache, monthVersions, taskExecutor);
+        this.cellRenderer = cellRenderer;
     }
 
     /**
@@ -29,31 +44,83 @@ public class CalendarController extends AbstractCalendarController {
      * @param year  выбранный год (если не указан – используется текущий год)
      * @param month выбранный месяц (если не указан – используется текущий месяц)
      * @param model модель для передачи данных в шаблон
+     * @param webRequest запрос для проверки If-None-Match
+     * @param request    запрос — контекст рендеринга ячеек (context path в ссылках)
+     * @param response   ответ
      * @return название шаблона для отображения календаря
+     * или null (304 Not Modified), если месяц не менялся
      */
     @GetMapping
     public String showCalendar(
             @RequestParam(value = "year", required = false) Integer year,
             @RequestParam(value = "month", required = false) Integer month,
-            Model model
+            Model model,
+            WebRequest webRequest,
+            HttpServletRequest request,
+            HttpServletResponse response
     ) {
+        // Месяц не менялся — 304 без обращения к БД и рендеринга шаблона
+        var etag = monthEtag(year, month);
+        if (webRequest.checkNotModified(etag)) {
+            return null;
+        }
+
         var calendarData = prepareCalendarData(year, month);
 
         // Заполняем модель атрибутами для шаблона
         model.addAttribute("year", calendarData.year());
         model.addAttribute("month", calendarData.month());
-        model.addAttribute("weeks", calendarData.weeks());
+        // Шаблон показывает только разрешённые дни — остальные ячейки не передаём.
+        // Ячейки приходят готовым HTML: после изменения одной записи заново рендерится только её день
+        model.addAttribute("weeks", onlyAllowedDays(calendarData.weeks()).stream()
+                .map(week -> week.stream()
+                        .map(cell -> cellRenderer.render(cell, request, response))
+                        .toList())
+                .toList());
         model.addAttribute("totalCost", calendarData.totalCost());
         model.addAttribute("attendedCount", calendarData.attendedCount());
-        model.addAttribute("monthNames", getMonthNames());
-        // Атрибут для фильтрации разрешённых дней в шаблоне
-        model.addAttribute("allowedDays", ALLOWED_DAYS);
+        // Версия месяца: после переподключения к /events страница проверяет, не пропустила ли изменений
+        model.addAttribute("etag", etag);
+        var meta = CalendarMetadataRegistry.getDefault();
+        model.addAttribute("monthNames", meta.monthNames());
         // Заголовки для таблицы (только разрешённые дни)
-        model.addAttribute("weekDays", List.of("Вт", "Чт", "Пт", "Вс"));
+        model.addAttribute("weekDays", meta.weekDays());
 
         return "calendar";
     }
 
+    /**
+     * Возвращает HTML одной ячейки дня (td) — чтобы обновить день на странице, не перерисовывая месяц.
+     *
+     * @param date       день
+     * @param year       год показанного месяца (по умолчанию — месяц дня)
+     * @param month      показанный месяц: от него зависит, крайний ли это день соседнего месяца
+     * @param webRequest запрос для проверки If-None-Match
+     * @return фрагмент dayCell или 404, если дня нет в сетке (не учебный день или не виден в месяце)
+     */
+    @GetMapping(value = "/day", produces = MediaType.TEXT_HTML_VALUE)
+    @ResponseBody
+    public String showDay(
+            @RequestParam("date") @DateTimeFormat(pattern = "yyyy-MM-dd") LocalDate date,
+            @RequestParam(value = "year", required = false) Integer year,
+            @RequestParam(value = "month", required = false) Integer month,
+            WebRequest webRequest,
+            HttpServletRequest request,
+            HttpServletResponse response
+    ) {
+        var shownYear = year != null ? year : date.getYear();
+        var shownMonth = month != null ? month : date.getMonthValue();
+        if (webRequest.checkNotModified(monthEtag(shownYear, shownMonth))) {
+            return null;
+        }
+        var cell = onlyAllowedDays(prepareCalendarData(shownYear, shownMonth).weeks()).stream()
+                .flatMap(List::stream)
+                .filter(day -> day.date().equals(date))
+                .findFirst()
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Дня нет в сетке месяца: " + date));
+        return cellRenderer.render(cell, request, response);
+    }
+
     /**
      * Добавление новой записи (attended = false)
      */
@@ -0,0 +1,72 @@
+package ru.greemlab.neirocalendar.controller;
+
+import ru.greemlab.neirocalendar.domain.dto.CalendarMetaDto;
+
+import java.time.DayOfWeek;
+import java.time.Month;
+import java.time.format.TextStyle;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Неизменяемый реестр метаданных календаря по локалям.
+ * Названия месяцев и заголовки дней вычисляются один раз при загрузке класса.
+ * Чтобы добавить локаль, достаточно дописать её в SUPPORTED_LOCALES.
+ */
+public final class CalendarMetadataRegistry {
+
+    public static final Locale DEFAULT_LOCALE = Locale.forLanguageTag("ru-RU");
+
+    private static final List<Locale> SUPPORTED_LOCALES = List.of(DEFAULT_LOCALE);
+
+    private static final Map<Locale, CalendarMetaDto> METADATA = SUPPORTED_LOCALES.stream()
+            .collect(Collectors.toUnmodifiableMap(Function.identity(), CalendarMetadataRegistry::build));
+
+    private CalendarMetadataRegistry() {
+    }
+
+    /**
+     * Метаданные для локали по умолчанию (ru-RU)
+     */
+    public static CalendarMetaDto getDefault() {
+        return METADATA.get(DEFAULT_LOCALE);
+    }
+
+    /**
+     * Метаданные для локали; для неподдерживаемых — локаль по умолчанию.
+     */
+    public static CalendarMetaDto forLocale(Locale locale) {
+        return METADATA.getOrDefault(locale, getDefault());
+    }
+
+    private static CalendarMetaDto build(Locale locale) {
+        var monthNames = new LinkedHashMap<Integer, String>();
+        for (var month : Month.values()) {
+            monthNames.put(month.getValue(), capitalize(month.getDisplayName(TextStyle.FULL_STANDALONE, locale), locale));
+        }
+
+        var allowedDays = Stream.of(DayOfWeek.values())
+                .filter(AbstractCalendarController.ALLOWED_DAYS::contains)
+                .toList();
+        var weekDays = allowedDays.stream()
+                .map(day -> capitalize(day.getDisplayName(TextStyle.SHORT_STANDALONE, locale), locale))
+                .toList();
+
+        return new CalendarMetaDto(
+                locale.toLanguageTag(),
+                Collections.unmodifiableMap(monthNames),
+                weekDays,
+                allowedDays
+        );
+    }
+
+    private static String capitalize(String name, Locale locale) {
+        return name.substring(0, 1).toUpperCase(locale) + name.substring(1);
+    }
+}
@@ -1,17 +1,62 @@
 package ru.greemlab.neirocalendar.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.task.AsyncTaskExecutor;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import ru.greemlab.neirocalendar.config.CalendarProperties;
+import ru.greemlab.neirocalendar.domain.dto.AttendanceImportResultDto;
+import ru.greemlab.neirocalendar.domain.dto.AttendanceRecordDto;
+import ru.greemlab.neirocalendar.domain.dto.BulkAttendanceRequestDto;
+import ru.greemlab.neirocalendar.domain.dto.BulkAttendanceResultDto;
+import ru.greemlab.neirocalendar.domain.dto.CacheStatsDto;
+import ru.greemlab.neirocalendar.domain.dto.CalendarMetaDto;
+import ru.greemlab.neirocalendar.domain.dto.CalendarRangeDto;
 import ru.greemlab.neirocalendar.domain.dto.CalendarResponseDto;
 import ru.greemlab.neirocalendar.domain.dto.DaySummaryDto;
+import ru.greemlab.neirocalendar.domain.dto.MutationBatchRequestDto;
+import ru.greemlab.neirocalendar.domain.dto.MutationBatchResultDto;
+import ru.greemlab.neirocalendar.domain.dto.PersonDto;
+import ru.greemlab.neirocalendar.domain.dto.PersonStatsDto;
+import ru.greemlab.neirocalendar.domain.dto.ReportDto;
+import ru.greemlab.neirocalendar.domain.dto.ReportGroupBy;
+import ru.greemlab.neirocalendar.domain.dto.TariffDto;
+import ru.greemlab.neirocalendar.service.AttendanceCsv;
+import ru.greemlab.neirocalendar.service.CalendarEventBus;
+import ru.greemlab.neirocalendar.service.CalendarGridTemplate;
+import ru.greemlab.neirocalendar.service.CalendarMonthCache;
+import ru.greemlab.neirocalendar.service.CalendarMonthVersions;
 import ru.greemlab.neirocalendar.service.CalendarService;
+import ru.greemlab.neirocalendar.service.PricingService;
 
+import java.io.BufferedOutputStream;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.time.LocalDate;
 import java.util.List;
+import java.util.Locale;
+import java.util.zip.GZIPOutputStream;
 
 /**
  * REST контроллер для управления календарём посещаемости.
@@ -23,9 +68,49 @@ import java.util.List;
 @Tag(name = "Календарь", description = "Операции для управления календарём посещаемости")
 public class CalendarRestController extends AbstractCalendarController {
 
+    /**
+     * Максимум недель в одном запросе /range (примерно учебное полугодие)
+     */
+    private static final int MAX_RANGE_WEEKS = 26;
+
+    /**
+     * Максимум операций в одном пакете /mutations
+     */
+    private static final int MAX_MUTATIONS = 500;
+
+    /**
+     * Максимум записей в одном запросе /attendance/bulk
+     */
+    private static final int MAX_BULK_RECORDS = 500;
+
+    /**
+     * Границы периода по умолчанию для выгрузки и истории по человеку — вся история.
+     * Нижняя граница — 0001-01-01, а не 1970-01-01: записи до 1970 года тоже входят в выгрузку
+     * и статистику. Даты до нашей эры через java.sql.Date читаются с потерей эры, поэтому не используются
+     */
+    private static final LocalDate HISTORY_MIN_DATE = LocalDate.of(1, 1, 1);
+    private static final LocalDate HISTORY_MAX_DATE = LocalDate.of(9999, 12, 31);
+
+    /**
+     * Буфер записи выгрузки: ответ уходит клиенту порциями, а не по строке
+     */
+    private static final int EXPORT_BUFFER_SIZE = 64 * 1024;
+
+    private final PricingService pricingService;
+    private final CalendarEventBus eventBus;
+    private final CalendarProperties properties;
+    private final ObjectMapper objectMapper;
 
-    public CalendarRestController(CalendarService calendarService) {
-        super(calendarService);
+    public CalendarRestController(CalendarService calendarService, CalendarMonthCache monthCache,
+                                  CalendarMonthVersions monthVersions, PricingService pricingService,
+                                  CalendarEventBus eventBus, CalendarProperties properties,
+                                  ObjectMapper objectMapper,
+                                  @Qualifier("applicationTaskExecutor") AsyncTaskExecutor taskExecutor) {
+        super(calendarService, monthCache, monthVersions, taskExecutor);
+        this.pricingService = pricingService;
+        this.eventBus = eventBus;
+        this.properties = properties;
+        this.objectMapper = objectMapper;
     }
 
     /**
@@ -33,32 +118,131 @@ public class CalendarRestController extends AbstractCalendarController {
      *
      * @param year  выбранный год (если не указан – используется текущий год)
      * @param month выбранный месяц (если не указан – используется текущий месяц)
+     * @param compact вернуть в неделях только разрешённые дни (ALLOWED_DAYS)
+     * @param webRequest запрос для проверки If-None-Match
      * @return JSON-структура с календарной сеткой и статистикой посещений
+     * или 304 Not Modified, если месяц не менялся
      */
     @GetMapping
     @Operation(summary = "Получить календарь для указанного месяца/года",
-            description = "Возвращает JSON со списком дней календаря и данными посещаемости.")
+            description = "Возвращает JSON со списком дней календаря и данными посещаемости. "
+                    + "С compact=true в неделях остаются только разрешённые дни (Вт, Чт, Пт, Вс). "
+                    + "Поддерживает If-None-Match: если месяц не менялся, отвечает 304 Not Modified.")
     public ResponseEntity<CalendarResponseDto> getCalendar(
             @RequestParam(value = "year", required = false) Integer year,
-            @RequestParam(value = "month", required = false) Integer month
+            @RequestParam(value = "month", required = false) Integer month,
+            @RequestParam(value = "compact", defaultValue = "false") boolean compact,
+            WebRequest webRequest
     ) {
+        // Месяц не менялся — 304 без обращения к БД и сериализации
+        var etag = monthEtag(year, month);
+        if (webRequest.checkNotModified(etag)) {
+            return null;
+        }
+
         // Получаем подготовленные календарные данные через общий метод
         var calendarData = prepareCalendarData(year, month);
 
         var response = CalendarResponseDto.builder()
                 .year(calendarData.year())
                 .month(calendarData.month())
-                .weeks(calendarData.weeks())
+                .weeks(compact ? onlyAllowedDays(calendarData.weeks()) : calendarData.weeks())
                 .totalCost(calendarData.totalCost())
                 .attendedCount(calendarData.attendedCount())
-                .monthNames(getMonthNames())
-                .allowedDays(ALLOWED_DAYS)
-                .weekDays(List.of("Вт", "Чт", "Пт", "Вс"))
                 .build();
 
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.noCache())
+                .body(response);
+    }
+
+    /**
+     * Возвращает сетку календаря за несколько недель подряд — для прокрутки без постраничных запросов по месяцам.
+     * Все записи окна загружаются одним запросом.
+     *
+     * @param from    любой день первой недели (если не указан – сегодня)
+     * @param weeks   количество недель (1..26)
+     * @param compact вернуть в неделях только разрешённые дни (ALLOWED_DAYS)
+     * @return сетка недель с записями и итогами за весь период
+     */
+    @GetMapping("/range")
+    @Operation(summary = "Получить календарь за несколько недель",
+            description = "Возвращает сетку из указанного количества недель (1..26), начиная с недели, содержащей from. "
+                    + "С compact=true в неделях остаются только разрешённые дни (Вт, Чт, Пт, Вс).")
+    public ResponseEntity<CalendarRangeDto> getRange(
+            @RequestParam(value = "from", required = false) @DateTimeFormat(pattern = "yyyy-MM-dd") LocalDate from,
+            @RequestParam(value = "weeks", defaultValue = "4") int weeks,
+            @RequestParam(value = "compact", defaultValue = "false") boolean compact
+    ) {
+        if (weeks < 1 || weeks > MAX_RANGE_WEEKS) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "weeks должно быть от 1 до " + MAX_RANGE_WEEKS);
+        }
+
+        var grid = CalendarGridTemplate.window(from != null ? from : LocalDate.now(), weeks);
+        var records = calendarService.getRecordsBetween(grid.start(), grid.end());
+        var cells = grid.fill(records);
+        var totals = calendarService.getTotalsBetween(grid.start(), grid.end());
+
+        var response = CalendarRangeDto.builder()
+                .start(grid.start())
+                .end(grid.end())
+                .weeks(compact ? onlyAllowedDays(cells) : cells)
+                .totalCost(totals.totalCost())
+                .attendedCount(totals.attendedCount())
+                .build();
         return ResponseEntity.ok(response);
     }
 
+    /**
+     * Возвращает отчёт за период с разбивкой по дням, неделям, месяцам или людям —
+     * например, годовой отчёт одним запросом вместо двенадцати месячных календарей.
+     *
+     * @param from    начало периода
+     * @param to      конец периода (включительно)
+     * @param groupBy day, week, month или person
+     * @return строки отчёта и итог за период: записи, посещения, доля посещений и заработок
+     */
+    @GetMapping("/report")
+    @Operation(summary = "Получить отчёт за период",
+            description = "Возвращает записи, посещения, долю посещений и заработок за период с разбивкой "
+                    + "по дням, неделям (с понедельника), месяцам или людям, а также итог за весь период. "
+                    + "Неделя или месяц на краю периода учитывают только дни внутри него.")
+    public ResponseEntity<ReportDto> getReport(
+            @RequestParam("from") @DateTimeFormat(pattern = "yyyy-MM-dd") LocalDate from,
+            @RequestParam("to")   @DateTimeFormat(pattern = "yyyy-MM-dd") LocalDate to,
+            @RequestParam(value = "groupBy", defaultValue = "month") String groupBy
+    ) {
+        if (to.isBefore(from)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "to должно быть не раньше from");
+        }
+        ReportGroupBy grouping;
+        try {
+            grouping = ReportGroupBy.valueOf(groupBy.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "groupBy должно быть day, week, month или person");
+        }
+        return ResponseEntity.ok(calendarService.getReport(from, to, grouping));
+    }
+
+    /**
+     * Возвращает статические метаданные календаря: названия месяцев, заголовки и разрешённые дни недели.
+     * Данные не меняются между релизами, поэтому ответ можно долго кэшировать на клиенте.
+     *
+     * @param locale тег локали (по умолчанию ru-RU)
+     * @return метаданные календаря для локали
+     */
+    @GetMapping("/meta")
+    @Operation(summary = "Получить метаданные календаря",
+            description = "Возвращает названия месяцев, заголовки столбцов и разрешённые дни недели. Ответ кэшируется на сутки.")
+    public ResponseEntity<CalendarMetaDto> getMeta(
+            @RequestParam(value = "locale", defaultValue = "ru-RU") String locale
+    ) {
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.maxAge(Duration.ofDays(1)).cachePublic())
+                .body(CalendarMetadataRegistry.forLocale(Locale.forLanguageTag(locale)));
+    }
+
     /**
      * Возвращает количество посещённых занятий и заработанную сумму по каждому дню за указанный период (только для attended = true).
      */
@@ -73,6 +257,266 @@ public class CalendarRestController extends AbstractCalendarController {
         return ResponseEntity.ok(dailySummaries);
     }
 
+    /**
+     * Потоковый вариант сводки по дням: строки NDJSON пишутся в ответ по мере чтения из БД,
+     * поэтому потребление памяти не зависит от длины периода.
+     */
+    @GetMapping(value = "/daily-summary/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @Operation(summary = "Получить сводку по дням потоком (NDJSON)",
+            description = "Возвращает сводку по дням за указанный период построчно в формате NDJSON, по одной строке на день")
+    public ResponseEntity<StreamingResponseBody> streamDailySummaries(
+            @RequestParam("start") @DateTimeFormat(pattern = "yyyy-MM-dd") LocalDate start,
+            @RequestParam("end")   @DateTimeFormat(pattern = "yyyy-MM-dd") LocalDate end
+    ) {
+        StreamingResponseBody body = out -> calendarService.streamDailySummaries(start, end, summary -> {
+            try {
+                out.write(objectMapper.writeValueAsBytes(summary));
+                out.write('\n');
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
+    }
+
+    /**
+     * Поток изменений календаря (Server-Sent Events) — чтобы открытые страницы поправляли ячейки сами,
+     * без перезагрузки. Каждое событие change — CalendarChangeDto по одной транзакции;
+     * событие reset означает, что клиент отстал и должен перезагрузить страницу.
+     *
+     * @return поток событий; закрывается через calendar.events.stream-timeout, браузер переподключается сам
+     */
+    @GetMapping(value = "/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(summary = "Подписаться на изменения календаря (SSE)",
+            description = "События change: months — изменившиеся месяцы, records — созданные, отмеченные "
+                    + "и удалённые записи. Пустой records (импорт, смена тарифа) — перезагрузить месяцы целиком. "
+                    + "Событие reset — клиент не успевал получать изменения, нужна полная перезагрузка.")
+    public SseEmitter streamEvents() {
+        var emitter = new SseEmitter(properties.events().streamTimeout().toMillis());
+        var subscription = eventBus.subscribe(new CalendarEventBus.Sink() {
+            @Override
+            public void send(String json) throws IOException {
+                emitter.send(SseEmitter.event().name("change").data(json, MediaType.APPLICATION_JSON));
+            }
+
+            @Override
+            public void close(boolean overflowed) {
+                try {
+                    if (overflowed) {
+                        emitter.send(SseEmitter.event().name("reset").data(""));
+                    }
+                    emitter.complete();
+                } catch (IOException | IllegalStateException e) {
+                    // Клиент уже отключился
+                }
+            }
+        });
+        emitter.onCompletion(subscription::cancel);
+        emitter.onTimeout(subscription::cancel);
+        emitter.onError(e -> subscription.cancel());
+        return emitter;
+    }
+
+    /**
+     * Выгружает записи посещаемости за период в CSV или NDJSON.
+     * Строки читаются из курсора БД и сразу пишутся в ответ, поэтому память
+     * не зависит от объёма истории.
+     *
+     * @param start  начало периода (если не указано – с начала истории)
+     * @param end    конец периода (если не указан – до конца истории)
+     * @param format csv или ndjson
+     * @param gzip   сжать ответ (Content-Encoding: gzip)
+     * @return поток строк в выбранном формате
+     */
+    @GetMapping("/export")
+    @Operation(summary = "Выгрузить историю посещаемости",
+            description = "Возвращает записи за период (по умолчанию — всю историю) в порядке даты и ID "
+                    + "в формате CSV или NDJSON. Ответ пишется потоком; с gzip=true сжимается.")
+    public ResponseEntity<StreamingResponseBody> exportRecords(
+            @RequestParam(value = "start", required = false) @DateTimeFormat(pattern = "yyyy-MM-dd") LocalDate start,
+            @RequestParam(value = "end", required = false) @DateTimeFormat(pattern = "yyyy-MM-dd") LocalDate end,
+            @RequestParam(value = "format", defaultValue = "csv") String format,
+            @RequestParam(value = "gzip", defaultValue = "false") boolean gzip
+    ) {
+        var from = start != null ? start : HISTORY_MIN_DATE;
+        var to = end != null ? end : HISTORY_MAX_DATE;
+        var csv = isCsv(format);
+        log.debug("Выгрузка посещаемости: start={}, end={}, format={}, gzip={}", from, to, format, gzip);
+
+        StreamingResponseBody body = out -> {
+            var compressed = gzip ? new GZIPOutputStream(out, EXPORT_BUFFER_SIZE) : null;
+            var target = compressed != null ? compressed : out;
+            if (csv) {
+                writeCsv(from, to, target);
+            } else {
+                writeNdjson(from, to, target);
+            }
+            if (compressed != null) {
+                compressed.finish();
+            }
+        };
+
+        var response = ResponseEntity.ok()
+                .contentType(csv ? new MediaType("text", "csv", StandardCharsets.UTF_8) : MediaType.APPLICATION_NDJSON)
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename("attendance." + (csv ? "csv" : "ndjson"))
+                        .build()
+                        .toString());
+        if (gzip) {
+            response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return response.body(body);
+    }
+
+    /**
+     * Формат выгрузки/импорта: true — CSV, false — NDJSON
+     */
+    private static boolean isCsv(String format) {
+        return switch (format.toLowerCase(Locale.ROOT)) {
+            case "csv" -> true;
+            case "ndjson" -> false;
+            default -> throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "format должен быть csv или ndjson");
+        };
+    }
+
+    private void writeCsv(LocalDate start, LocalDate end, OutputStream out) throws IOException {
+        var writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), EXPORT_BUFFER_SIZE);
+        writer.write(AttendanceCsv.HEADER);
+        writer.write('\n');
+        calendarService.streamRecordsBetween(start, end, record -> {
+            try {
+                AttendanceCsv.writeRow(writer, record);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        writer.flush();
+    }
+
+    private void writeNdjson(LocalDate start, LocalDate end, OutputStream out) throws IOException {
+        var buffered = new BufferedOutputStream(out, EXPORT_BUFFER_SIZE);
+        calendarService.streamRecordsBetween(start, end, record -> {
+            try {
+                buffered.write(objectMapper.writeValueAsBytes(record));
+                buffered.write('\n');
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        buffered.flush();
+    }
+
+    /**
+     * Возвращает справочник людей.
+     *
+     * @return ID и имена, отсортированные по имени
+     */
+    @GetMapping("/people")
+    @Operation(summary = "Получить список людей",
+            description = "Возвращает всех людей из справочника с их ID для запросов /people/{personId}/...")
+    public ResponseEntity<List<PersonDto>> getPeople() {
+        return ResponseEntity.ok(calendarService.getPeople());
+    }
+
+    /**
+     * Возвращает историю записей одного человека за период.
+     *
+     * @param personId ID человека
+     * @param start    начало периода (если не указано – с начала истории)
+     * @param end      конец периода (если не указан – до конца истории)
+     * @return записи в порядке даты и ID
+     */
+    @GetMapping("/people/{personId}/history")
+    @Operation(summary = "Получить историю посещений человека",
+            description = "Возвращает записи человека за период (по умолчанию — всю историю) в порядке даты.")
+    public ResponseEntity<List<AttendanceRecordDto>> getPersonHistory(
+            @PathVariable("personId") Long personId,
+            @RequestParam(value = "start", required = false) @DateTimeFormat(pattern = "yyyy-MM-dd") LocalDate start,
+            @RequestParam(value = "end", required = false) @DateTimeFormat(pattern = "yyyy-MM-dd") LocalDate end
+    ) {
+        var person = findPerson(personId);
+        var history = calendarService.getPersonHistory(person.id(),
+                start != null ? start : HISTORY_MIN_DATE,
+                end != null ? end : HISTORY_MAX_DATE);
+        return ResponseEntity.ok(history);
+    }
+
+    /**
+     * Возвращает долю посещений и заработок по одному человеку за период.
+     *
+     * @param personId ID человека
+     * @param start    начало периода (если не указано – с начала истории)
+     * @param end      конец периода (если не указан – до конца истории)
+     * @return количество записей и посещений, доля посещений и заработок
+     */
+    @GetMapping("/people/{personId}/stats")
+    @Operation(summary = "Получить статистику человека",
+            description = "Возвращает количество записей и посещений, долю посещений (attendanceRate, 0..1) "
+                    + "и заработок по человеку за период (по умолчанию — всю историю).")
+    public ResponseEntity<PersonStatsDto> getPersonStats(
+            @PathVariable("personId") Long personId,
+            @RequestParam(value = "start", required = false) @DateTimeFormat(pattern = "yyyy-MM-dd") LocalDate start,
+            @RequestParam(value = "end", required = false) @DateTimeFormat(pattern = "yyyy-MM-dd") LocalDate end
+    ) {
+        var person = findPerson(personId);
+        var stats = calendarService.getPersonStats(person,
+                start != null ? start : HISTORY_MIN_DATE,
+                end != null ? end : HISTORY_MAX_DATE);
+        return ResponseEntity.ok(stats);
+    }
+
+    private PersonDto findPerson(Long personId) {
+        return calendarService.findPerson(personId)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Человек не найден: " + personId));
+    }
+
+    /**
+     * Возвращает все тарифы.
+     *
+     * @return общие и персональные тарифы с датами начала действия
+     */
+    @GetMapping("/tariffs")
+    @Operation(summary = "Получить тарифы",
+            description = "Возвращает общие (personId = null) и персональные тарифы. "
+                    + "Цена посещения — последний тариф, действующий на дату; персональный важнее общего.")
+    public ResponseEntity<List<TariffDto>> getTariffs() {
+        return ResponseEntity.ok(pricingService.getTariffs());
+    }
+
+    /**
+     * Создаёт тариф или меняет цену тарифа с теми же personId и effectiveFrom.
+     *
+     * @param tariff personId (null — общий тариф), дата начала действия и цена
+     * @return сохранённый тариф
+     */
+    @PutMapping("/tariffs")
+    @Operation(summary = "Сохранить тариф",
+            description = "Создаёт тариф или меняет цену существующего с теми же personId и effectiveFrom. "
+                    + "Заработок по дням начиная с effectiveFrom пересчитывается.")
+    public ResponseEntity<TariffDto> saveTariff(@RequestBody TariffDto tariff) {
+        if (tariff.effectiveFrom() == null || tariff.price() == null || tariff.price() < 0) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Нужны effectiveFrom и неотрицательная price");
+        }
+        if (tariff.personId() != null) {
+            findPerson(tariff.personId());
+        }
+        return ResponseEntity.ok(pricingService.saveTariff(tariff));
+    }
+
+    /**
+     * Возвращает статистику кэша месяцев календаря.
+     *
+     * @return количество попаданий, промахов и сбросов кэша
+     */
+    @GetMapping("/cache/stats")
+    @Operation(summary = "Статистика кэша календаря",
+            description = "Возвращает размер кэша месяцев, количество попаданий, промахов, вытеснений и сбросов после изменений.")
+    public ResponseEntity<CacheStatsDto> getCacheStats() {
+        return ResponseEntity.ok(monthCache.stats());
+    }
+
     /**
      * Создаёт новую запись посещаемости для указанного человека на заданную дату (attended=false по умолчанию).
      *
@@ -122,6 +566,86 @@ public class CalendarRestController extends AbstractCalendarController {
         return ResponseEntity.ok("Запись посещаемости обновлена");
     }
 
+    /**
+     * Массово выставляет отметку посещаемости (например, перекличка за весь день) одним UPDATE.
+     *
+     * @param request ID записей (не больше MAX_BULK_RECORDS) и новое значение attended
+     * @return количество запрошенных и фактически обновлённых записей
+     */
+    @PostMapping("/attendance/bulk")
+    @Operation(summary = "Массово отметить посещаемость",
+            description = "Выставляет attended для всех указанных записей одним запросом. "
+                    + "Если updated меньше requested, часть ID не найдена.")
+    public ResponseEntity<BulkAttendanceResultDto> bulkMarkAttendance(@RequestBody BulkAttendanceRequestDto request) {
+        if (request.attended() == null) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Не указано attended");
+        }
+        if (request.recordIds() != null && request.recordIds().size() > MAX_BULK_RECORDS) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "recordIds должно содержать не больше " + MAX_BULK_RECORDS + " записей");
+        }
+        var recordIds = request.recordIds() == null
+                ? List.<Long>of()
+                : request.recordIds().stream().distinct().toList();
+        log.info("Массовая отметка посещаемости: attended={}, записей={}", request.attended(), recordIds.size());
+        var updated = calendarService.markAttendance(recordIds, request.attended());
+        return ResponseEntity.ok(new BulkAttendanceResultDto(recordIds.size(), updated));
+    }
+
+    /**
+     * Применяет пакет операций create / toggle / delete в одной транзакции.
+     * Каждая операция несёт ключ идемпотентности: повтор пакета после обрыва связи
+     * не создаёт дубликатов, а возвращает результат первого применения.
+     *
+     * @param request операции пакета (не больше MAX_MUTATIONS)
+     * @return результат по каждой операции в порядке запроса
+     */
+    @PostMapping("/mutations")
+    @Operation(summary = "Пакетно изменить записи посещаемости",
+            description = "Операции create, toggle (выставить attended) и delete. Для toggle и delete можно передать "
+                    + "expectedVersion — при расхождении операция получает статус conflict и текущую версию. "
+                    + "Повтор операции с тем же key возвращает сохранённый результат с replayed=true.")
+    public ResponseEntity<MutationBatchResultDto> applyMutations(@RequestBody MutationBatchRequestDto request) {
+        var operations = request.operations();
+        if (operations == null || operations.isEmpty() || operations.size() > MAX_MUTATIONS) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "operations должно содержать от 1 до " + MAX_MUTATIONS + " операций");
+        }
+        var result = calendarService.applyMutations(operations);
+        log.info("Пакет изменений: операций={}, применено={}, отклонено={}",
+                operations.size(), result.applied(), result.rejected());
+        return ResponseEntity.ok(result);
+    }
+
+    /**
+     * Импортирует записи посещаемости из тела запроса (CSV с заголовком или NDJSON, UTF-8) —
+     * для переноса истории из таблиц. Файл разбирается потоком и загружается одной командой COPY;
+     * некорректные строки пропускаются и перечисляются в ответе.
+     *
+     * @param format csv или ndjson
+     * @param body   содержимое файла
+     * @return сколько строк получено, загружено и отклонено, первые ошибки и скорость загрузки
+     */
+    @PostMapping("/import")
+    @Operation(summary = "Импортировать записи посещаемости",
+            description = "Принимает CSV (колонки person_name, visit_date, attended) или NDJSON "
+                    + "(personName, visitDate, attended). Некорректные строки не прерывают загрузку "
+                    + "и возвращаются в errors с номером строки.")
+    public ResponseEntity<AttendanceImportResultDto> importRecords(
+            @RequestParam(value = "format", defaultValue = "csv") String format,
+            InputStream body
+    ) {
+        var csv = isCsv(format);
+        try {
+            var result = calendarService.importRecords(new InputStreamReader(body, StandardCharsets.UTF_8), csv);
+            log.info("Импорт посещаемости: загружено={}, отклонено={}, строк/с={}",
+                    result.imported(), result.rejected(), result.rowsPerSecond());
+            return ResponseEntity.ok(result);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+    }
+
     /**
      * Удаляет указанную запись посещаемости.
      *
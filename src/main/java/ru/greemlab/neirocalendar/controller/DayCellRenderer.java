@@ -0,0 +1,85 @@
+package ru.greemlab.neirocalendar.controller;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.servlet.ServletContext;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.i18n.LocaleContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.thymeleaf.ITemplateEngine;
+import org.thymeleaf.context.WebContext;
+import org.thymeleaf.web.servlet.JakartaServletWebApplication;
+import ru.greemlab.neirocalendar.config.CalendarProperties;
+import ru.greemlab.neirocalendar.domain.dto.DayCellDto;
+import ru.greemlab.neirocalendar.domain.dto.RecordChangeDto;
+import ru.greemlab.neirocalendar.domain.event.AttendanceChangedEvent;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Рендеринг ячейки дня (фрагмент dayCell из fragments/day-cell.html) с кэшем готового HTML.
+ * Ключ кэша — сама ячейка: дата, принадлежность показанному месяцу и записи с их версиями,
+ * то есть версия ячейки меняется вместе с любой её записью. Поэтому после изменения одной записи
+ * страница месяца заново рендерит только её ячейку, остальные берутся из кэша.
+ */
+@Slf4j
+@Component
+public class DayCellRenderer {
+
+    private static final String TEMPLATE = "fragments/day-cell";
+    private static final Set<String> FRAGMENT = Set.of("dayCell");
+
+    private final ITemplateEngine templateEngine;
+    private final JakartaServletWebApplication application;
+    private final Cache<DayCellDto, String> cache;
+
+    public DayCellRenderer(ITemplateEngine templateEngine, ServletContext servletContext,
+                           CalendarProperties properties, MeterRegistry registry) {
+        this.templateEngine = templateEngine;
+        this.application = JakartaServletWebApplication.buildApplication(servletContext);
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(properties.cache().maxCells())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(registry, cache, "calendar.day-cell");
+    }
+
+    /**
+     * HTML ячейки (td) из кэша; при промахе фрагмент рендерится в контексте текущего запроса
+     * (ссылки @{...} строятся с его context path)
+     */
+    public String render(DayCellDto cell, HttpServletRequest request, HttpServletResponse response) {
+        return cache.get(cell, key -> {
+            var context = new WebContext(application.buildExchange(request, response), LocaleContextHolder.getLocale());
+            context.setVariable("cell", key);
+            return templateEngine.process(TEMPLATE, FRAGMENT, context);
+        });
+    }
+
+    /**
+     * Убирает из кэша ячейки изменённых дней (после коммита). Для корректности это не нужно —
+     * у изменённой ячейки другой ключ, — но так устаревший HTML не ждёт вытеснения по размеру.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAttendanceChanged(AttendanceChangedEvent event) {
+        if (event.records().isEmpty()) {
+            // Массовое изменение — известны только месяцы
+            Set<YearMonth> months = event.months();
+            cache.asMap().keySet().removeIf(cell -> months.contains(YearMonth.from(cell.date())));
+        } else {
+            Set<LocalDate> dates = event.records().stream()
+                    .map(RecordChangeDto::visitDate)
+                    .collect(Collectors.toSet());
+            cache.asMap().keySet().removeIf(cell -> dates.contains(cell.date()));
+        }
+        log.debug("Day cells cached after invalidation: {}", cache.estimatedSize());
+    }
+}
@@ -0,0 +1,26 @@
+package ru.greemlab.neirocalendar.domain.dto;
+
+import lombok.Builder;
+
+import java.util.List;
+
+/**
+ * Итог импорта записей посещаемости
+ *
+ * @param received      строк с данными во входном файле
+ * @param imported      загружено в attendance_records
+ * @param rejected      пропущено из-за ошибок
+ * @param errors        первые ошибки (не больше AttendanceImportParser.MAX_REPORTED_ERRORS)
+ * @param durationMs    длительность разбора и загрузки
+ * @param rowsPerSecond скорость загрузки
+ */
+@Builder
+public record AttendanceImportResultDto(
+        long received,
+        long imported,
+        long rejected,
+        List<ImportErrorDto> errors,
+        long durationMs,
+        long rowsPerSecond
+) {
+}
@@ -7,8 +7,10 @@ import java.time.LocalDate;
  */
 public record AttendanceRecordDto(
         Long id,
+        Long personId,
         String personName,
         LocalDate visitDate,
-        Boolean attended
+        Boolean attended,
+        Long version
 ) {
 }
@@ -0,0 +1,11 @@
+package ru.greemlab.neirocalendar.domain.dto;
+
+/**
+ * DTO с итогами за период: всего записей, посещений и сумма
+ */
+public record AttendanceTotalsDto(
+        long totalCount,     // всего записей
+        long attendedCount,  // пришли
+        long totalCost       // сумма
+) {
+}
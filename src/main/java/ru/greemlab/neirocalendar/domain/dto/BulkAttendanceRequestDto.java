@@ -0,0 +1,12 @@
+package ru.greemlab.neirocalendar.domain.dto;
+
+import java.util.List;
+
+/**
+ * DTO запроса массовой отметки посещаемости
+ */
+public record BulkAttendanceRequestDto(
+        List<Long> recordIds,  // ID записей
+        Boolean attended       // новое значение attended (обязательно)
+) {
+}
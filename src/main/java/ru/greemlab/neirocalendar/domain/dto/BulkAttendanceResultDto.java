@@ -0,0 +1,10 @@
+package ru.greemlab.neirocalendar.domain.dto;
+
+/**
+ * DTO результата массовой отметки посещаемости
+ */
+public record BulkAttendanceResultDto(
+        int requested,  // уникальных ID в запросе
+        int updated     // обновлено записей
+) {
+}
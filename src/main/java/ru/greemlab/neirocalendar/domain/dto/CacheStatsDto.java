@@ -0,0 +1,13 @@
+package ru.greemlab.neirocalendar.domain.dto;
+
+/**
+ * DTO со статистикой кэша месяцев календаря
+ */
+public record CacheStatsDto(
+        long size,           // месяцев в кэше
+        long hits,           // попадания
+        long misses,         // промахи
+        long evictions,      // вытеснено по размеру
+        long invalidations   // сброшено из-за изменений
+) {
+}
@@ -0,0 +1,18 @@
+package ru.greemlab.neirocalendar.domain.dto;
+
+import java.time.YearMonth;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Сообщение потока /events: все изменения одной транзакции.
+ * Если records пуст (импорт, смена тарифа), страницы перечисленных месяцев нужно перезагрузить целиком.
+ *
+ * @param months  месяцы, сетка которых изменилась (включая соседние, чьи дни видны в сетке)
+ * @param records изменения отдельных записей
+ */
+public record CalendarChangeDto(
+        Set<YearMonth> months,
+        List<RecordChangeDto> records
+) {
+}
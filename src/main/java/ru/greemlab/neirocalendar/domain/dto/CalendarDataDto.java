@@ -3,7 +3,6 @@ package ru.greemlab.neirocalendar.domain.dto;
 import lombok.Builder;
 
 import java.util.List;
-import java.util.Map;
 
 @Builder
 public record CalendarDataDto(
@@ -11,7 +10,6 @@ public record CalendarDataDto(
         int month,
         List<List<DayCellDto>> weeks,
         long totalCost,
-        long attendedCount,
-        Map<Integer, String> monthNames
+        long attendedCount
 ) {
 }
@@ -0,0 +1,17 @@
+package ru.greemlab.neirocalendar.domain.dto;
+
+import java.time.DayOfWeek;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Статические метаданные календаря для одной локали:
+ * названия месяцев, заголовки столбцов и разрешённые дни недели.
+ */
+public record CalendarMetaDto(
+        String locale,                    // тег локали, например ru-RU
+        Map<Integer, String> monthNames,  // номер месяца (1-12) -> название
+        List<String> weekDays,            // заголовки столбцов (только разрешённые дни)
+        List<DayOfWeek> allowedDays       // разрешённые дни недели по порядку
+) {
+}
@@ -0,0 +1,19 @@
+package ru.greemlab.neirocalendar.domain.dto;
+
+import lombok.Builder;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Ответ с сеткой календаря за несколько недель подряд (для прокрутки)
+ */
+@Builder
+public record CalendarRangeDto(
+        LocalDate start,                // первый день (понедельник)
+        LocalDate end,                  // последний день (воскресенье)
+        List<List<DayCellDto>> weeks,
+        long totalCost,                 // сумма за весь период
+        long attendedCount              // посещений за весь период
+) {
+}
@@ -2,20 +2,18 @@ package ru.greemlab.neirocalendar.domain.dto;
 
 import lombok.Builder;
 
-import java.time.DayOfWeek;
-import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.Set;
 
+/**
+ * Ответ с данными календаря за месяц.
+ * Статические метаданные (названия месяцев, дни недели) — в /api/v1/calendar/meta.
+ */
 @Builder
 public record CalendarResponseDto(
         int year,
         int month,
         List<List<DayCellDto>> weeks,
         long totalCost,
-        long attendedCount,
-        LinkedHashMap<Integer, String> monthNames,
-        Set<DayOfWeek> allowedDays,
-        List<String> weekDays
+        long attendedCount
 ) {
 }
@@ -11,4 +11,11 @@ public record DaySummaryDto(
         int attendedCount,  // пришли
         int earnings        // сумма
 ) {
+
+    /**
+     * Конструктор для JPQL-выражения по daily_rollups (колонки BIGINT)
+     */
+    public DaySummaryDto(LocalDate date, Long totalCount, Long attendedCount, Long earnings) {
+        this(date, Math.toIntExact(totalCount), Math.toIntExact(attendedCount), Math.toIntExact(earnings));
+    }
 }
@@ -0,0 +1,13 @@
+package ru.greemlab.neirocalendar.domain.dto;
+
+/**
+ * Ошибка разбора одной строки файла импорта
+ *
+ * @param line    номер строки в файле (с 1, включая заголовок CSV); для записи CSV из нескольких строк — первой
+ * @param message причина, по которой строка пропущена
+ */
+public record ImportErrorDto(
+        long line,
+        String message
+) {
+}
@@ -0,0 +1,11 @@
+package ru.greemlab.neirocalendar.domain.dto;
+
+import java.util.List;
+
+/**
+ * Пакет операций /mutations, применяемых в одной транзакции
+ */
+public record MutationBatchRequestDto(
+        List<MutationOperationDto> operations
+) {
+}
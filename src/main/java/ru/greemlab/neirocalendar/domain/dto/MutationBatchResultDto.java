@@ -0,0 +1,17 @@
+package ru.greemlab.neirocalendar.domain.dto;
+
+import java.util.List;
+
+/**
+ * Итог пакета /mutations
+ *
+ * @param applied   применено операций (включая повторы ранее применённых)
+ * @param rejected  не применено: conflict, not_found или invalid
+ * @param results   результат по каждой операции, в порядке запроса
+ */
+public record MutationBatchResultDto(
+        int applied,
+        int rejected,
+        List<MutationResultDto> results
+) {
+}
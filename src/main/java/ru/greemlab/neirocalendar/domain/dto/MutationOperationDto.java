@@ -0,0 +1,25 @@
+package ru.greemlab.neirocalendar.domain.dto;
+
+import java.time.LocalDate;
+
+/**
+ * Одна операция пакетного изменения
+ *
+ * @param key             ключ идемпотентности, выбранный клиентом (до 64 символов, уникален в пакете)
+ * @param type            create, toggle или delete
+ * @param recordId        ID записи (toggle, delete)
+ * @param expectedVersion версия, которую видел клиент (toggle, delete); null — без проверки
+ * @param personName      имя (create)
+ * @param visitDate       дата посещения (create)
+ * @param attended        отметка посещения (create — по умолчанию false, toggle — обязательно)
+ */
+public record MutationOperationDto(
+        String key,
+        MutationType type,
+        Long recordId,
+        Long expectedVersion,
+        String personName,
+        LocalDate visitDate,
+        Boolean attended
+) {
+}
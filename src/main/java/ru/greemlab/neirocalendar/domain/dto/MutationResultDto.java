@@ -0,0 +1,22 @@
+package ru.greemlab.neirocalendar.domain.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * Результат одной операции пакета (в том же порядке, что и операции)
+ *
+ * @param recordId ID записи (для create — созданной)
+ * @param version  версия записи после операции; для conflict — текущая версия
+ * @param replayed операция уже была применена раньше с тем же ключом, повторно не выполнялась
+ * @param message  причина для invalid
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record MutationResultDto(
+        String key,
+        MutationStatus status,
+        Long recordId,
+        Long version,
+        boolean replayed,
+        String message
+) {
+}
@@ -0,0 +1,32 @@
+package ru.greemlab.neirocalendar.domain.dto;
+
+import com.fasterxml.jackson.annotation.JsonValue;
+
+import java.util.Locale;
+
+/**
+ * Результат одной операции пакетного изменения
+ */
+public enum MutationStatus {
+    /**
+     * Операция применена (или была применена раньше с тем же ключом — replayed)
+     */
+    APPLIED,
+    /**
+     * Версия записи не совпала с expectedVersion; в ответе текущая версия
+     */
+    CONFLICT,
+    /**
+     * Записи recordId нет
+     */
+    NOT_FOUND,
+    /**
+     * Операция некорректна и не выполнялась
+     */
+    INVALID;
+
+    @JsonValue
+    public String value() {
+        return name().toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,28 @@
+package ru.greemlab.neirocalendar.domain.dto;
+
+import com.fasterxml.jackson.annotation.JsonValue;
+
+import java.util.Locale;
+
+/**
+ * Тип операции пакетного изменения /mutations
+ */
+public enum MutationType {
+    /**
+     * Новая запись (personName, visitDate, attended)
+     */
+    CREATE,
+    /**
+     * Выставить attended у записи recordId (значение, а не инверсия — повтор безопасен)
+     */
+    TOGGLE,
+    /**
+     * Удалить запись recordId
+     */
+    DELETE;
+
+    @JsonValue
+    public String value() {
+        return name().toLowerCase(Locale.ROOT);
+    }
+}
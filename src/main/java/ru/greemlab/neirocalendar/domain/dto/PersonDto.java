@@ -0,0 +1,10 @@
+package ru.greemlab.neirocalendar.domain.dto;
+
+/**
+ * Человек из справочника people
+ */
+public record PersonDto(
+        Long id,
+        String name
+) {
+}
@@ -0,0 +1,24 @@
+package ru.greemlab.neirocalendar.domain.dto;
+
+import lombok.Builder;
+
+import java.time.LocalDate;
+
+/**
+ * Итоги по одному человеку за период
+ *
+ * @param attendanceRate доля посещённых занятий от записанных (0..1), 0 если записей нет
+ * @param earnings       заработано на посещённых занятиях
+ */
+@Builder
+public record PersonStatsDto(
+        Long personId,
+        String name,
+        LocalDate start,
+        LocalDate end,
+        long totalCount,
+        long attendedCount,
+        double attendanceRate,
+        long earnings
+) {
+}
@@ -0,0 +1,45 @@
+package ru.greemlab.neirocalendar.domain.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+
+/**
+ * Изменение одной записи посещаемости — достаточно, чтобы поправить ячейку дня без перезагрузки
+ *
+ * @param type       created, toggled или deleted
+ * @param month      месяц записи (год-месяц)
+ * @param recordId   ID записи
+ * @param version    версия записи после изменения (для deleted — последняя)
+ * @param personName имя (только для created)
+ * @param visitDate  дата посещения
+ * @param attended   отметка посещения (для created и toggled)
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record RecordChangeDto(
+        RecordChangeType type,
+        YearMonth month,
+        Long recordId,
+        Long version,
+        String personName,
+        LocalDate visitDate,
+        Boolean attended
+) {
+
+    public static RecordChangeDto created(Long recordId, Long version, String personName,
+                                          LocalDate visitDate, boolean attended) {
+        return new RecordChangeDto(RecordChangeType.CREATED, YearMonth.from(visitDate), recordId, version,
+                personName, visitDate, attended);
+    }
+
+    public static RecordChangeDto toggled(Long recordId, Long version, LocalDate visitDate, boolean attended) {
+        return new RecordChangeDto(RecordChangeType.TOGGLED, YearMonth.from(visitDate), recordId, version,
+                null, visitDate, attended);
+    }
+
+    public static RecordChangeDto deleted(Long recordId, Long version, LocalDate visitDate) {
+        return new RecordChangeDto(RecordChangeType.DELETED, YearMonth.from(visitDate), recordId, version,
+                null, visitDate, null);
+    }
+}
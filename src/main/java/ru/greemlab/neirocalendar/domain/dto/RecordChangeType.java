@@ -0,0 +1,28 @@
+package ru.greemlab.neirocalendar.domain.dto;
+
+import com.fasterxml.jackson.annotation.JsonValue;
+
+import java.util.Locale;
+
+/**
+ * Вид изменения записи в потоке /events
+ */
+public enum RecordChangeType {
+    /**
+     * Запись создана
+     */
+    CREATED,
+    /**
+     * У записи изменилась отметка attended
+     */
+    TOGGLED,
+    /**
+     * Запись удалена
+     */
+    DELETED;
+
+    @JsonValue
+    public String value() {
+        return name().toLowerCase(Locale.ROOT);
+    }
+}
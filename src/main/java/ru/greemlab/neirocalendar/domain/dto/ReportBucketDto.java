@@ -0,0 +1,25 @@
+package ru.greemlab.neirocalendar.domain.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.time.LocalDate;
+
+/**
+ * Одна строка отчёта: период (день, неделя с понедельника, месяц) или человек
+ *
+ * @param periodStart    начало периода (для группировки по дням/неделям/месяцам)
+ * @param personId       ID человека (для группировки по людям)
+ * @param personName     имя человека (для группировки по людям)
+ * @param attendanceRate доля посещённых занятий от записанных (0..1), 0 если записей нет
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record ReportBucketDto(
+        LocalDate periodStart,
+        Long personId,
+        String personName,
+        long totalCount,
+        long attendedCount,
+        double attendanceRate,
+        long earnings
+) {
+}
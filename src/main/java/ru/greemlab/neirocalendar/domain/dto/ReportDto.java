@@ -0,0 +1,19 @@
+package ru.greemlab.neirocalendar.domain.dto;
+
+import lombok.Builder;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Отчёт за период [from..to] с разбивкой по groupBy и итогом за весь период
+ */
+@Builder
+public record ReportDto(
+        LocalDate from,
+        LocalDate to,
+        ReportGroupBy groupBy,
+        List<ReportBucketDto> buckets,
+        ReportBucketDto totals
+) {
+}
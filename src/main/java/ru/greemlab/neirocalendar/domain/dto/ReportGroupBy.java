@@ -0,0 +1,23 @@
+package ru.greemlab.neirocalendar.domain.dto;
+
+import com.fasterxml.jackson.annotation.JsonValue;
+
+import java.util.Locale;
+
+/**
+ * Группировка отчёта /report
+ */
+public enum ReportGroupBy {
+    DAY,
+    WEEK,
+    MONTH,
+    PERSON;
+
+    /**
+     * Значение параметра groupBy; для DAY, WEEK и MONTH — это же единица date_trunc
+     */
+    @JsonValue
+    public String value() {
+        return name().toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,18 @@
+package ru.greemlab.neirocalendar.domain.dto;
+
+import java.time.LocalDate;
+
+/**
+ * DTO тарифа
+ *
+ * @param personId      ID человека для персонального тарифа, null — общий тариф
+ * @param effectiveFrom с какой даты действует (до следующего тарифа)
+ * @param price         цена одного посещения
+ */
+public record TariffDto(
+        Long id,
+        Long personId,
+        LocalDate effectiveFrom,
+        Integer price
+) {
+}
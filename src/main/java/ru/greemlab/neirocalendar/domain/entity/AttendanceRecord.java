@@ -20,12 +20,22 @@ public class AttendanceRecord {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
-    @Column(name = "person_name", nullable = false)
-    private String personName;
+    /**
+     * Ссылка на people.id; имя берётся из PersonDirectory
+     */
+    @Column(name = "person_id", nullable = false)
+    private Long personId;
 
     @Column(name = "visit_date", nullable = false)
     private LocalDate visitDate;
 
     @Column(name = "attended", nullable = false)
     private Boolean attended = false;
+
+    /**
+     * Версия для оптимистической блокировки; пакетные UPDATE увеличивают её сами
+     */
+    @Version
+    @Column(name = "version", nullable = false)
+    private Long version;
 }
@@ -0,0 +1,32 @@
+package ru.greemlab.neirocalendar.domain.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDate;
+
+/**
+ * Сущность для таблицы daily_rollups: итоги по одному дню.
+ * Строки пишет только DailyRollupRefreshRepository.
+ */
+@Entity
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Table(name = "daily_rollups")
+public class DailyRollup {
+
+    @Id
+    @Column(name = "visit_date")
+    private LocalDate visitDate;
+
+    @Column(name = "total_count", nullable = false)
+    private Long totalCount;
+
+    @Column(name = "attended_count", nullable = false)
+    private Long attendedCount;
+
+    @Column(name = "earnings", nullable = false)
+    private Long earnings;
+}
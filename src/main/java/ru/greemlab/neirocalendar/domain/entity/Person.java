@@ -0,0 +1,23 @@
+package ru.greemlab.neirocalendar.domain.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+/**
+ * Сущность для таблицы people — справочник имён, на который ссылаются attendance_records
+ */
+@Entity
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Table(name = "people")
+public class Person {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "name", nullable = false, unique = true)
+    private String name;
+}
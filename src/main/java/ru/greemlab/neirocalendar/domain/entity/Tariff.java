@@ -0,0 +1,32 @@
+package ru.greemlab.neirocalendar.domain.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDate;
+
+/**
+ * Сущность для таблицы tariffs: цена посещения, действующая с effectiveFrom
+ * (общая, если personId == null, иначе персональная)
+ */
+@Entity
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Table(name = "tariffs")
+public class Tariff {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "person_id")
+    private Long personId;
+
+    @Column(name = "effective_from", nullable = false)
+    private LocalDate effectiveFrom;
+
+    @Column(name = "price", nullable = false)
+    private Integer price;
+}
@@ -0,0 +1,20 @@
+package ru.greemlab.neirocalendar.domain.event;
+
+import ru.greemlab.neirocalendar.domain.dto.RecordChangeDto;
+
+import java.time.YearMonth;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Событие изменения записей посещаемости.
+ * Публикуется CalendarService после каждой изменяющей операции.
+ *
+ * @param months  месяцы, данные которых изменились
+ * @param records изменения отдельных записей; пуст для массовых операций (импорт, смена тарифа)
+ */
+public record AttendanceChangedEvent(
+        Set<YearMonth> months,
+        List<RecordChangeDto> records
+) {
+}
@@ -1,23 +1,42 @@
 package ru.greemlab.neirocalendar.mapper;
 
+import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Component;
 import ru.greemlab.neirocalendar.domain.dto.AttendanceRecordDto;
 import ru.greemlab.neirocalendar.domain.entity.AttendanceRecord;
+import ru.greemlab.neirocalendar.repository.projection.AttendanceRecordRow;
+import ru.greemlab.neirocalendar.service.PersonDirectory;
 
 /**
  * Преобразование Entity -> DTO.
  * Чтобы не повторять код, делаем отдельный метод.
+ * Имя берётся из PersonDirectory: DTO одного человека делят один экземпляр String.
  */
 @Component
+@RequiredArgsConstructor
 public class UserAttendanceRecordMap {
 
+    private final PersonDirectory people;
+
     public AttendanceRecordDto toDto(AttendanceRecord entity) {
         return new AttendanceRecordDto(
                 entity.getId(),
-                entity.getPersonName(),
+                entity.getPersonId(),
+                people.nameOf(entity.getPersonId()),
                 entity.getVisitDate(),
-                entity.getAttended()
+                entity.getAttended(),
+                entity.getVersion()
+        );
+    }
 
+    public AttendanceRecordDto toDto(AttendanceRecordRow row) {
+        return new AttendanceRecordDto(
+                row.id(),
+                row.personId(),
+                people.nameOf(row.personId()),
+                row.visitDate(),
+                row.attended(),
+                row.version()
         );
     }
 }
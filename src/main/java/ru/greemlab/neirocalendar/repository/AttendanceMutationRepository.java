@@ -0,0 +1,68 @@
+package ru.greemlab.neirocalendar.repository;
+
+import ru.greemlab.neirocalendar.domain.dto.MutationOperationDto;
+import ru.greemlab.neirocalendar.repository.projection.MutationOutcome;
+import ru.greemlab.neirocalendar.repository.projection.RecordVersion;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Операции для пакетных изменений /mutations: каждая выполняется одним запросом
+ * на весь пакет, версии проверяются в самом UPDATE/DELETE.
+ */
+public interface AttendanceMutationRepository {
+
+    /**
+     * Выставляет attended и увеличивает version у записей, версия которых совпадает
+     * с expectedVersion (или у всех, если expectedVersion == null).
+     *
+     * @return изменённые записи; отсутствующие в ответе — конфликт версии или нет записи
+     */
+    List<RecordVersion> updateAttendedIfVersion(List<MutationOperationDto> toggles);
+
+    /**
+     * Удаляет записи, версия которых совпадает с expectedVersion (или все, если он null).
+     *
+     * @return удалённые записи; отсутствующие в ответе — конфликт версии или нет записи
+     */
+    List<RecordVersion> deleteIfVersion(List<MutationOperationDto> deletes);
+
+    /**
+     * Текущие версии существующих записей из ids
+     */
+    Map<Long, Long> findVersions(Collection<Long> ids);
+
+    /**
+     * Занимает ключи идемпотентности. Ключ, который параллельно занимает другая транзакция,
+     * ждёт её завершения.
+     *
+     * @return ключи, занятые этим вызовом; остальные уже были применены раньше
+     */
+    Set<String> claimKeys(Collection<String> keys);
+
+    /**
+     * Сохранённые результаты ранее применённых ключей
+     */
+    List<MutationOutcome> findOutcomes(Collection<String> keys);
+
+    /**
+     * Сохраняет результаты применённых операций для занятых ключей
+     */
+    void saveOutcomes(List<MutationOutcome> outcomes);
+
+    /**
+     * Освобождает занятые ключи неприменённых операций, чтобы их можно было повторить
+     */
+    void releaseKeys(Collection<String> keys);
+
+    /**
+     * Удаляет ключи, созданные раньше threshold
+     *
+     * @return количество удалённых ключей
+     */
+    int purgeKeysCreatedBefore(Instant threshold);
+}
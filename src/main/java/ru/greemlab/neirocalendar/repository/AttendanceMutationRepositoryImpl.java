@@ -0,0 +1,182 @@
+package ru.greemlab.neirocalendar.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import ru.greemlab.neirocalendar.domain.dto.MutationOperationDto;
+import ru.greemlab.neirocalendar.repository.projection.MutationOutcome;
+import ru.greemlab.neirocalendar.repository.projection.RecordVersion;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Реализация пакетных изменений через JdbcTemplate.
+ * Параметры пакета передаются массивами и разворачиваются unnest-ом,
+ * поэтому число запросов не зависит от размера пакета.
+ */
+@RequiredArgsConstructor
+public class AttendanceMutationRepositoryImpl implements AttendanceMutationRepository {
+
+    private static final String UPDATE_ATTENDED_SQL = """
+            UPDATE attendance_records r
+            SET attended = o.attended,
+                version  = r.version + 1
+            FROM unnest(?::bigint[], ?::boolean[], ?::bigint[]) AS o(id, attended, expected_version)
+            WHERE r.id = o.id
+              AND (o.expected_version IS NULL OR r.version = o.expected_version)
+            RETURNING r.id, r.visit_date, r.version
+            """;
+
+    private static final String DELETE_SQL = """
+            DELETE FROM attendance_records r
+            USING unnest(?::bigint[], ?::bigint[]) AS o(id, expected_version)
+            WHERE r.id = o.id
+              AND (o.expected_version IS NULL OR r.version = o.expected_version)
+            RETURNING r.id, r.visit_date, r.version
+            """;
+
+    private static final String FIND_VERSIONS_SQL =
+            "SELECT id, version FROM attendance_records WHERE id = ANY (?)";
+
+    private static final String CLAIM_KEYS_SQL = """
+            INSERT INTO attendance_mutations (idempotency_key)
+            SELECT unnest(?::varchar[])
+            ON CONFLICT (idempotency_key) DO NOTHING
+            RETURNING idempotency_key
+            """;
+
+    private static final String FIND_OUTCOMES_SQL =
+            "SELECT idempotency_key, record_id, version FROM attendance_mutations WHERE idempotency_key = ANY (?)";
+
+    private static final String SAVE_OUTCOMES_SQL = """
+            UPDATE attendance_mutations m
+            SET record_id = o.record_id,
+                version   = o.version
+            FROM unnest(?::varchar[], ?::bigint[], ?::bigint[]) AS o(idempotency_key, record_id, version)
+            WHERE m.idempotency_key = o.idempotency_key
+            """;
+
+    private static final String RELEASE_KEYS_SQL =
+            "DELETE FROM attendance_mutations WHERE idempotency_key = ANY (?)";
+
+    private static final String PURGE_KEYS_SQL =
+            "DELETE FROM attendance_mutations WHERE created_at < ?";
+
+    private static final RowMapper<RecordVersion> RECORD_VERSION_MAPPER = (rs, rowNum) -> new RecordVersion(
+            rs.getLong("id"),
+            rs.getObject("visit_date", LocalDate.class),
+            rs.getLong("version")
+    );
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public List<RecordVersion> updateAttendedIfVersion(List<MutationOperationDto> toggles) {
+        if (toggles.isEmpty()) {
+            return List.of();
+        }
+        return jdbcTemplate.query(con -> {
+            var ps = con.prepareStatement(UPDATE_ATTENDED_SQL);
+            ps.setArray(1, con.createArrayOf("bigint", toggles.stream().map(MutationOperationDto::recordId).toArray()));
+            ps.setArray(2, con.createArrayOf("boolean", toggles.stream().map(MutationOperationDto::attended).toArray()));
+            ps.setArray(3, con.createArrayOf("bigint", toggles.stream().map(MutationOperationDto::expectedVersion).toArray()));
+            return ps;
+        }, RECORD_VERSION_MAPPER);
+    }
+
+    @Override
+    public List<RecordVersion> deleteIfVersion(List<MutationOperationDto> deletes) {
+        if (deletes.isEmpty()) {
+            return List.of();
+        }
+        return jdbcTemplate.query(con -> {
+            var ps = con.prepareStatement(DELETE_SQL);
+            ps.setArray(1, con.createArrayOf("bigint", deletes.stream().map(MutationOperationDto::recordId).toArray()));
+            ps.setArray(2, con.createArrayOf("bigint", deletes.stream().map(MutationOperationDto::expectedVersion).toArray()));
+            return ps;
+        }, RECORD_VERSION_MAPPER);
+    }
+
+    @Override
+    public Map<Long, Long> findVersions(Collection<Long> ids) {
+        Map<Long, Long> versions = new HashMap<>();
+        if (ids.isEmpty()) {
+            return versions;
+        }
+        jdbcTemplate.query(con -> {
+            var ps = con.prepareStatement(FIND_VERSIONS_SQL);
+            ps.setArray(1, con.createArrayOf("bigint", ids.toArray()));
+            return ps;
+        }, rs -> {
+            versions.put(rs.getLong("id"), rs.getLong("version"));
+        });
+        return versions;
+    }
+
+    @Override
+    public Set<String> claimKeys(Collection<String> keys) {
+        if (keys.isEmpty()) {
+            return Set.of();
+        }
+        return new HashSet<>(jdbcTemplate.query(con -> {
+            var ps = con.prepareStatement(CLAIM_KEYS_SQL);
+            ps.setArray(1, con.createArrayOf("varchar", keys.toArray()));
+            return ps;
+        }, (rs, rowNum) -> rs.getString(1)));
+    }
+
+    @Override
+    public List<MutationOutcome> findOutcomes(Collection<String> keys) {
+        if (keys.isEmpty()) {
+            return List.of();
+        }
+        return jdbcTemplate.query(con -> {
+            var ps = con.prepareStatement(FIND_OUTCOMES_SQL);
+            ps.setArray(1, con.createArrayOf("varchar", keys.toArray()));
+            return ps;
+        }, (rs, rowNum) -> new MutationOutcome(
+                rs.getString("idempotency_key"),
+                rs.getObject("record_id", Long.class),
+                rs.getObject("version", Long.class)
+        ));
+    }
+
+    @Override
+    public void saveOutcomes(List<MutationOutcome> outcomes) {
+        if (outcomes.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.update(con -> {
+            var ps = con.prepareStatement(SAVE_OUTCOMES_SQL);
+            ps.setArray(1, con.createArrayOf("varchar", outcomes.stream().map(MutationOutcome::key).toArray()));
+            ps.setArray(2, con.createArrayOf("bigint", outcomes.stream().map(MutationOutcome::recordId).toArray()));
+            ps.setArray(3, con.createArrayOf("bigint", outcomes.stream().map(MutationOutcome::version).toArray()));
+            return ps;
+        });
+    }
+
+    @Override
+    public void releaseKeys(Collection<String> keys) {
+        if (keys.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.update(con -> {
+            var ps = con.prepareStatement(RELEASE_KEYS_SQL);
+            ps.setArray(1, con.createArrayOf("varchar", keys.toArray()));
+            return ps;
+        });
+    }
+
+    @Override
+    public int purgeKeysCreatedBefore(Instant threshold) {
+        return jdbcTemplate.update(PURGE_KEYS_SQL, Timestamp.from(threshold));
+    }
+}
@@ -0,0 +1,39 @@
+package ru.greemlab.neirocalendar.repository;
+
+import ru.greemlab.neirocalendar.domain.dto.AttendanceRecordDto;
+import ru.greemlab.neirocalendar.repository.projection.RecordVersion;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Пакетные операции над таблицей "attendance_records",
+ * которые нельзя эффективно выразить через JpaRepository.
+ */
+public interface AttendanceRecordBatchRepository {
+
+    /**
+     * Вставляет все записи одним пакетом (id генерируется базой); personId должен быть заполнен.
+     *
+     * @return созданные записи (ID, дата, версия) в порядке records
+     */
+    List<RecordVersion> insertAll(List<AttendanceRecordDto> records);
+
+    /**
+     * Загружает записи командой COPY ... FROM STDIN (id генерируется базой).
+     * Записи читаются из потока по мере отправки, в памяти не накапливаются.
+     * Люди сопоставляются по personName (новые имена добавляются в people), personId не нужен.
+     * Вызывать внутри транзакции.
+     *
+     * @return количество загруженных строк
+     */
+    long copyAll(Stream<AttendanceRecordDto> records);
+
+    /**
+     * Одним UPDATE выставляет attended для всех указанных записей.
+     *
+     * @return изменённые записи (ID, дата, новая версия); размер списка — число обновлённых строк
+     */
+    List<RecordVersion> updateAttended(Collection<Long> ids, boolean attended);
+}
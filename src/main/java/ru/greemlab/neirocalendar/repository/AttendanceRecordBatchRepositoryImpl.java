@@ -0,0 +1,163 @@
+package ru.greemlab.neirocalendar.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.PGCopyOutputStream;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.greemlab.neirocalendar.domain.dto.AttendanceRecordDto;
+import ru.greemlab.neirocalendar.repository.projection.RecordVersion;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Реализация пакетных операций через JdbcTemplate.
+ * Сущность использует GenerationType.IDENTITY, поэтому Hibernate не умеет
+ * батчить её INSERT-ы; здесь все строки уходят одним JDBC-пакетом, а драйвер
+ * (reWriteBatchedInserts) сворачивает его в многострочный INSERT ... VALUES.
+ */
+@RequiredArgsConstructor
+public class AttendanceRecordBatchRepositoryImpl implements AttendanceRecordBatchRepository {
+
+    private static final String INSERT_SQL =
+            "INSERT INTO attendance_records (person_id, visit_date, attended) VALUES (?, ?, ?)";
+
+    private static final String UPDATE_ATTENDED_SQL =
+            "UPDATE attendance_records SET attended = ?, version = version + 1 WHERE id = ANY (?) RETURNING id, visit_date, version";
+
+    /**
+     * Промежуточная таблица импорта: имена сопоставляются с people одним запросом после COPY.
+     * Удаляется при завершении транзакции.
+     */
+    private static final String CREATE_STAGING_SQL = """
+            CREATE TEMP TABLE attendance_import
+            (
+                person_name VARCHAR(255) NOT NULL,
+                visit_date  DATE         NOT NULL,
+                attended    BOOLEAN      NOT NULL
+            ) ON COMMIT DROP
+            """;
+
+    private static final String COPY_SQL =
+            "COPY attendance_import (person_name, visit_date, attended) FROM STDIN WITH (FORMAT csv)";
+
+    private static final String INSERT_NEW_PEOPLE_SQL = """
+            INSERT INTO people (name)
+            SELECT DISTINCT person_name FROM attendance_import
+            ON CONFLICT (name) DO NOTHING
+            """;
+
+    private static final String INSERT_FROM_STAGING_SQL = """
+            INSERT INTO attendance_records (person_id, visit_date, attended)
+            SELECT p.id, s.visit_date, s.attended
+            FROM attendance_import s
+                     JOIN people p ON p.name = s.person_name
+            """;
+
+    /**
+     * Буфер между записью строк и сообщениями CopyData драйвера
+     */
+    private static final int COPY_BUFFER_SIZE = 64 * 1024;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public List<RecordVersion> insertAll(List<AttendanceRecordDto> records) {
+        if (records.isEmpty()) {
+            return List.of();
+        }
+        // id и version возвращает сам INSERT (RETURNING), в порядке пакета
+        return jdbcTemplate.execute((ConnectionCallback<List<RecordVersion>>) con -> {
+            try (var ps = con.prepareStatement(INSERT_SQL, new String[]{"id", "version"})) {
+                for (var rec : records) {
+                    ps.setLong(1, rec.personId());
+                    ps.setDate(2, Date.valueOf(rec.visitDate()));
+                    ps.setBoolean(3, Boolean.TRUE.equals(rec.attended()));
+                    ps.addBatch();
+                }
+                ps.executeBatch();
+
+                List<RecordVersion> created = new ArrayList<>(records.size());
+                try (var keys = ps.getGeneratedKeys()) {
+                    for (var i = 0; keys.next(); i++) {
+                        created.add(new RecordVersion(keys.getLong("id"), records.get(i).visitDate(), keys.getLong("version")));
+                    }
+                }
+                return created;
+            }
+        });
+    }
+
+    /**
+     * COPY вместо пакетного INSERT: без разбора и планирования каждой строки,
+     * данные уходят потоком CSV во временную таблицу, а оттуда двумя INSERT ... SELECT
+     * в people и attendance_records. Соединение берётся из текущей транзакции,
+     * поэтому при ошибке загрузка откатывается целиком.
+     */
+    @Override
+    public long copyAll(Stream<AttendanceRecordDto> records) {
+        jdbcTemplate.execute(CREATE_STAGING_SQL);
+        jdbcTemplate.execute((ConnectionCallback<Long>) con -> {
+            var copy = new PGCopyOutputStream(con.unwrap(PGConnection.class), COPY_SQL, COPY_BUFFER_SIZE);
+            try {
+                var writer = new BufferedWriter(new OutputStreamWriter(copy, StandardCharsets.UTF_8), COPY_BUFFER_SIZE);
+                records.forEach(rec -> writeCopyRow(writer, rec));
+                writer.flush();
+                return copy.endCopy();
+            } catch (IOException | RuntimeException e) {
+                if (copy.isActive()) {
+                    copy.cancelCopy();
+                }
+                throw e instanceof IOException io ? new UncheckedIOException(io) : (RuntimeException) e;
+            }
+        });
+        jdbcTemplate.update(INSERT_NEW_PEOPLE_SQL);
+        return jdbcTemplate.update(INSERT_FROM_STAGING_SQL);
+    }
+
+    private static void writeCopyRow(Writer writer, AttendanceRecordDto rec) {
+        try {
+            writer.write('"');
+            writer.write(rec.personName().replace("\"", "\"\""));
+            writer.write("\",");
+            writer.write(rec.visitDate().toString());
+            writer.write(',');
+            writer.write(Boolean.TRUE.equals(rec.attended()) ? "true" : "false");
+            writer.write('\n');
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * UPDATE ... RETURNING вместо @Modifying-запроса: кроме количества строк
+     * сразу получаем их даты, чтобы сбросить кэш нужных месяцев без повторного чтения.
+     */
+    @Override
+    public List<RecordVersion> updateAttended(Collection<Long> ids, boolean attended) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        return jdbcTemplate.query(con -> {
+            var ps = con.prepareStatement(UPDATE_ATTENDED_SQL);
+            ps.setBoolean(1, attended);
+            ps.setArray(2, con.createArrayOf("bigint", ids.toArray()));
+            return ps;
+        }, (rs, rowNum) -> new RecordVersion(
+                rs.getLong("id"),
+                rs.getObject("visit_date", LocalDate.class),
+                rs.getLong("version")
+        ));
+    }
+}
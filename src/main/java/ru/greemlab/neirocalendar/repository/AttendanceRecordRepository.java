@@ -1,19 +1,39 @@
 package ru.greemlab.neirocalendar.repository;
 
+import jakarta.persistence.QueryHint;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import ru.greemlab.neirocalendar.domain.entity.AttendanceRecord;
+import ru.greemlab.neirocalendar.repository.projection.AttendanceRecordRow;
+import ru.greemlab.neirocalendar.repository.projection.AttendanceTotalsProjection;
 
 import java.time.LocalDate;
 import java.util.List;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
 
 /**
  * Репозиторий для работы с таблицей "attendance_records".
  * Наследуемся от JpaRepository, чтобы получить базовые CRUD-методы:
  * save, findAll, findById, delete и др.
+ * Пакетные вставки — из AttendanceRecordBatchRepository, отчёты — из AttendanceReportRepository,
+ * пакетные изменения с проверкой версий — из AttendanceMutationRepository.
  */
-public interface AttendanceRecordRepository extends JpaRepository<AttendanceRecord, Long> {
+public interface AttendanceRecordRepository extends JpaRepository<AttendanceRecord, Long>,
+        AttendanceRecordBatchRepository, AttendanceReportRepository, AttendanceMutationRepository {
+
+    /**
+     * Записи за интервал в порядке индекса idx_attendance_records_visit_date_id.
+     */
+    String ROWS_BETWEEN_QUERY = """
+            SELECT new ru.greemlab.neirocalendar.repository.projection.AttendanceRecordRow(r.id, r.personId, r.visitDate, r.attended, r.version)
+            FROM AttendanceRecord r
+            WHERE r.visitDate >= :start AND r.visitDate <= :end
+            ORDER BY r.visitDate ASC, r.id ASC
+            """;
 
     /**
      * Находим все записи на конкретную дату.
@@ -22,8 +42,56 @@ public interface AttendanceRecordRepository extends JpaRepository<AttendanceReco
 
     /**
      * Находим все записи в заданном интервале (включительно).
+     * Порядок (visitDate, id) совпадает с индексом idx_attendance_records_visit_date_id,
+     * поэтому сортировка не требуется.
      */
-    @Query("SELECT r FROM AttendanceRecord r WHERE r.visitDate >= :start AND r.visitDate <= :end ORDER BY r.id ASC")
+    @Query("SELECT r FROM AttendanceRecord r WHERE r.visitDate >= :start AND r.visitDate <= :end ORDER BY r.visitDate ASC, r.id ASC")
     List<AttendanceRecord> findByVisitDateBetween(@Param("start") LocalDate start, @Param("end") LocalDate end);
 
+    /**
+     * То же, что findByVisitDateBetween, но сразу в строки-проекции (без управляемых сущностей
+     * в persistence context) — для запросов только на чтение.
+     */
+    @Query(ROWS_BETWEEN_QUERY)
+    List<AttendanceRecordRow> findRowsByVisitDateBetween(@Param("start") LocalDate start, @Param("end") LocalDate end);
+
+    /**
+     * То же, что findRowsByVisitDateBetween, но строки читаются из курсора порциями —
+     * для выгрузки истории любой длины. Поток нужно закрыть и читать внутри транзакции.
+     */
+    @Query(ROWS_BETWEEN_QUERY)
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "1000"))
+    Stream<AttendanceRecordRow> streamRowsByVisitDateBetween(@Param("start") LocalDate start,
+                                                             @Param("end") LocalDate end);
+
+    /**
+     * История одного человека за интервал (включительно) по индексу
+     * idx_attendance_records_person_id_visit_date, без сравнения строк.
+     */
+    @Query("""
+            SELECT new ru.greemlab.neirocalendar.repository.projection.AttendanceRecordRow(r.id, r.personId, r.visitDate, r.attended, r.version)
+            FROM AttendanceRecord r
+            WHERE r.personId = :personId AND r.visitDate >= :start AND r.visitDate <= :end
+            ORDER BY r.visitDate ASC, r.id ASC
+            """)
+    List<AttendanceRecordRow> findRowsByPersonIdAndVisitDateBetween(@Param("personId") Long personId,
+                                                                    @Param("start") LocalDate start,
+                                                                    @Param("end") LocalDate end);
+
+    /**
+     * Итоги одного человека за интервал (включительно) по индексу
+     * idx_attendance_records_person_id_visit_date; заработок — по тарифам (attendance_price).
+     */
+    @Query(value = """
+            SELECT COUNT(*)                           AS totalCount,
+                   COUNT(*) FILTER (WHERE r.attended) AS attendedCount,
+                   COALESCE(SUM(attendance_price(r.person_id, r.visit_date))
+                            FILTER (WHERE r.attended), 0) AS earnings
+            FROM attendance_records r
+            WHERE r.person_id = :personId
+              AND r.visit_date BETWEEN :start AND :end
+            """, nativeQuery = true)
+    AttendanceTotalsProjection aggregateByPersonBetween(@Param("personId") Long personId,
+                                                        @Param("start") LocalDate start,
+                                                        @Param("end") LocalDate end);
 }
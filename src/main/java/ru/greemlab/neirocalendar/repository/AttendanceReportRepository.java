@@ -0,0 +1,24 @@
+package ru.greemlab.neirocalendar.repository;
+
+import ru.greemlab.neirocalendar.repository.projection.ReportRow;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Отчёты за период одним агрегирующим запросом.
+ */
+public interface AttendanceReportRepository {
+
+    /**
+     * Итоги по периодам date_trunc(unit) из daily_rollups — не больше строки на день периода.
+     *
+     * @param unit day, week или month
+     */
+    List<ReportRow> sumByPeriod(String unit, LocalDate start, LocalDate end);
+
+    /**
+     * Итоги по людям из attendance_records; заработок по тарифам (attendance_price).
+     */
+    List<ReportRow> sumByPerson(LocalDate start, LocalDate end);
+}
@@ -0,0 +1,76 @@
+package ru.greemlab.neirocalendar.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import ru.greemlab.neirocalendar.repository.projection.ReportRow;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Реализация отчётов через JdbcTemplate: date_trunc и группировка
+ * выполняются в БД, в приложение приходит по строке на группу.
+ */
+@RequiredArgsConstructor
+public class AttendanceReportRepositoryImpl implements AttendanceReportRepository {
+
+    private static final String SUM_BY_PERIOD_SQL = """
+            SELECT CAST(date_trunc(?, d.visit_date) AS DATE) AS period_start,
+                   SUM(d.total_count)                        AS total_count,
+                   SUM(d.attended_count)                     AS attended_count,
+                   SUM(d.earnings)                           AS earnings
+            FROM daily_rollups d
+            WHERE d.visit_date BETWEEN ? AND ?
+            GROUP BY 1
+            ORDER BY 1
+            """;
+
+    /**
+     * Как и в daily_rollups, цена считается один раз на (человек, день)
+     */
+    private static final String SUM_BY_PERSON_SQL = """
+            SELECT g.person_id,
+                   SUM(g.total_count)    AS total_count,
+                   SUM(g.attended_count) AS attended_count,
+                   COALESCE(SUM(g.attended_count * attendance_price(g.person_id, g.visit_date)), 0) AS earnings
+            FROM (SELECT r.person_id,
+                         r.visit_date,
+                         COUNT(*)                           AS total_count,
+                         COUNT(*) FILTER (WHERE r.attended) AS attended_count
+                  FROM attendance_records r
+                  WHERE r.visit_date BETWEEN ? AND ?
+                  GROUP BY r.person_id, r.visit_date) g
+            GROUP BY g.person_id
+            ORDER BY g.person_id
+            """;
+
+    private static final RowMapper<ReportRow> PERIOD_ROW_MAPPER = (rs, rowNum) -> new ReportRow(
+            rs.getObject("period_start", LocalDate.class),
+            null,
+            rs.getLong("total_count"),
+            rs.getLong("attended_count"),
+            rs.getLong("earnings")
+    );
+
+    private static final RowMapper<ReportRow> PERSON_ROW_MAPPER = (rs, rowNum) -> new ReportRow(
+            null,
+            rs.getLong("person_id"),
+            rs.getLong("total_count"),
+            rs.getLong("attended_count"),
+            rs.getLong("earnings")
+    );
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public List<ReportRow> sumByPeriod(String unit, LocalDate start, LocalDate end) {
+        return jdbcTemplate.query(SUM_BY_PERIOD_SQL, PERIOD_ROW_MAPPER, unit, Date.valueOf(start), Date.valueOf(end));
+    }
+
+    @Override
+    public List<ReportRow> sumByPerson(LocalDate start, LocalDate end) {
+        return jdbcTemplate.query(SUM_BY_PERSON_SQL, PERSON_ROW_MAPPER, Date.valueOf(start), Date.valueOf(end));
+    }
+}
@@ -0,0 +1,23 @@
+package ru.greemlab.neirocalendar.repository;
+
+import java.time.LocalDate;
+import java.util.Collection;
+
+/**
+ * Пересчёт строк daily_rollups по attendance_records и тарифам.
+ * Вызывается в транзакции изменения, поэтому итоги не расходятся с записями.
+ * Конкурирующие транзакции пересчитывают один и тот же день по очереди (блокировка до конца транзакции),
+ * поэтому пересчёт — последний шаг транзакции, после всех изменений записей.
+ */
+public interface DailyRollupRefreshRepository {
+
+    /**
+     * Пересчитывает итоги указанных дней; дни без записей удаляются.
+     */
+    void refresh(Collection<LocalDate> dates);
+
+    /**
+     * Пересчитывает итоги всех дней начиная с from (после изменения тарифа).
+     */
+    void refreshFrom(LocalDate from);
+}
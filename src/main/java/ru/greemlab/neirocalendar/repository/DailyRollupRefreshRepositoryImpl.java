@@ -0,0 +1,108 @@
+package ru.greemlab.neirocalendar.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.Collection;
+
+/**
+ * Реализация пересчёта итогов через JdbcTemplate.
+ * Цена считается один раз на (день, человек), а не на каждую запись.
+ * <p>
+ * Пересчёт читает attendance_records снимком своего оператора (READ COMMITTED), поэтому две транзакции,
+ * одновременно меняющие один день, не должны пересчитывать его параллельно: вторая записала бы итог
+ * без незафиксированных строк первой. Перед пересчётом берутся advisory-блокировки до конца транзакции:
+ * на каждый день (в порядке дат — без взаимных блокировок) и общая — разделяемая для пересчёта дней,
+ * исключительная для refreshFrom. Ждущая транзакция пересчитывает уже после фиксации первой и видит её строки.
+ */
+@RequiredArgsConstructor
+public class DailyRollupRefreshRepositoryImpl implements DailyRollupRefreshRepository {
+
+    /**
+     * %s — условие отбора дней по r.visit_date
+     */
+    private static final String UPSERT_SQL_TEMPLATE = """
+            INSERT INTO daily_rollups (visit_date, total_count, attended_count, earnings)
+            SELECT g.visit_date,
+                   SUM(g.total_count),
+                   SUM(g.attended_count),
+                   COALESCE(SUM(g.attended_count * attendance_price(g.person_id, g.visit_date)), 0)
+            FROM (SELECT r.visit_date,
+                         r.person_id,
+                         COUNT(*)                           AS total_count,
+                         COUNT(*) FILTER (WHERE r.attended) AS attended_count
+                  FROM attendance_records r
+                  WHERE %s
+                  GROUP BY r.visit_date, r.person_id) g
+            GROUP BY g.visit_date
+            ON CONFLICT (visit_date) DO UPDATE
+                SET total_count    = EXCLUDED.total_count,
+                    attended_count = EXCLUDED.attended_count,
+                    earnings       = EXCLUDED.earnings
+            """;
+
+    private static final String UPSERT_DATES_SQL = UPSERT_SQL_TEMPLATE.formatted("r.visit_date = ANY (?)");
+
+    private static final String UPSERT_FROM_SQL = UPSERT_SQL_TEMPLATE.formatted("r.visit_date >= ?");
+
+    private static final String DELETE_EMPTY_SQL = """
+            DELETE FROM daily_rollups d
+            WHERE d.visit_date = ANY (?)
+              AND NOT EXISTS (SELECT 1 FROM attendance_records r WHERE r.visit_date = d.visit_date)
+            """;
+
+    /**
+     * Пространство advisory-блокировок итогов: (ROLLUP_LOCK, день от 1970-01-01) — один день,
+     * (ROLLUP_LOCK, ALL_DAYS) — все дни. Дни до 1970 года дают отрицательные ключи, поэтому
+     * ALL_DAYS — вне диапазона дат (не -1, которое совпало бы с 1969-12-31)
+     */
+    private static final int ROLLUP_LOCK = 0x524f4c4c;
+    private static final int ALL_DAYS = Integer.MIN_VALUE;
+
+    private static final String LOCK_ALL_SHARED_SQL = "SELECT pg_advisory_xact_lock_shared(?, ?)";
+
+    private static final String LOCK_ALL_SQL = "SELECT pg_advisory_xact_lock(?, ?)";
+
+    /**
+     * unnest возвращает даты в порядке массива — блокировки берутся по возрастанию дат
+     */
+    private static final String LOCK_DATES_SQL = """
+            SELECT count(pg_advisory_xact_lock(?, d - DATE '1970-01-01'))
+            FROM unnest(?::date[]) AS d
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public void refresh(Collection<LocalDate> dates) {
+        if (dates.isEmpty()) {
+            return;
+        }
+        var sqlDates = dates.stream().distinct().sorted().map(Date::valueOf).toArray();
+        jdbcTemplate.query(LOCK_ALL_SHARED_SQL, rs -> null, ROLLUP_LOCK, ALL_DAYS);
+        jdbcTemplate.query(con -> {
+            var ps = con.prepareStatement(LOCK_DATES_SQL);
+            ps.setInt(1, ROLLUP_LOCK);
+            ps.setArray(2, con.createArrayOf("date", sqlDates));
+            return ps;
+        }, rs -> null);
+        jdbcTemplate.update(con -> {
+            var ps = con.prepareStatement(UPSERT_DATES_SQL);
+            ps.setArray(1, con.createArrayOf("date", sqlDates));
+            return ps;
+        });
+        jdbcTemplate.update(con -> {
+            var ps = con.prepareStatement(DELETE_EMPTY_SQL);
+            ps.setArray(1, con.createArrayOf("date", sqlDates));
+            return ps;
+        });
+    }
+
+    @Override
+    public void refreshFrom(LocalDate from) {
+        jdbcTemplate.query(LOCK_ALL_SQL, rs -> null, ROLLUP_LOCK, ALL_DAYS);
+        jdbcTemplate.update(UPSERT_FROM_SQL, Date.valueOf(from));
+    }
+}
@@ -0,0 +1,64 @@
+package ru.greemlab.neirocalendar.repository;
+
+import jakarta.persistence.QueryHint;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import ru.greemlab.neirocalendar.domain.dto.DaySummaryDto;
+import ru.greemlab.neirocalendar.domain.entity.DailyRollup;
+import ru.greemlab.neirocalendar.repository.projection.AttendanceTotalsProjection;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+
+/**
+ * Репозиторий для работы с таблицей "daily_rollups".
+ * Отчёты за период читают не больше одной строки на день, независимо от объёма attendance_records.
+ */
+public interface DailyRollupRepository extends JpaRepository<DailyRollup, LocalDate>, DailyRollupRefreshRepository {
+
+    String SUMMARIES_QUERY = """
+            SELECT new ru.greemlab.neirocalendar.domain.dto.DaySummaryDto(
+                       d.visitDate, d.totalCount, d.attendedCount, d.earnings)
+            FROM DailyRollup d
+            WHERE d.visitDate >= :start AND d.visitDate <= :end
+            ORDER BY d.visitDate ASC
+            """;
+
+    /**
+     * Сводка по дням за интервал (включительно), по строке на каждый день с записями.
+     */
+    @Query(SUMMARIES_QUERY)
+    List<DaySummaryDto> findSummaries(@Param("start") LocalDate start, @Param("end") LocalDate end);
+
+    /**
+     * То же, что findSummaries, но строки читаются из курсора порциями.
+     * Поток нужно закрыть и читать внутри транзакции.
+     */
+    @Query(SUMMARIES_QUERY)
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "500"))
+    Stream<DaySummaryDto> streamSummaries(@Param("start") LocalDate start, @Param("end") LocalDate end);
+
+    /**
+     * Итоги за интервал (включительно): записи, посещения и заработок.
+     */
+    @Query(value = """
+            SELECT COALESCE(SUM(d.total_count), 0)    AS totalCount,
+                   COALESCE(SUM(d.attended_count), 0) AS attendedCount,
+                   COALESCE(SUM(d.earnings), 0)       AS earnings
+            FROM daily_rollups d
+            WHERE d.visit_date BETWEEN :start AND :end
+            """, nativeQuery = true)
+    AttendanceTotalsProjection aggregateBetween(@Param("start") LocalDate start, @Param("end") LocalDate end);
+
+    /**
+     * Последний день, по которому есть итоги
+     */
+    @Query("SELECT MAX(d.visitDate) FROM DailyRollup d")
+    Optional<LocalDate> findLastDate();
+}
@@ -0,0 +1,27 @@
+package ru.greemlab.neirocalendar.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import ru.greemlab.neirocalendar.domain.entity.Person;
+
+import java.util.List;
+
+/**
+ * Репозиторий для работы с таблицей "people".
+ */
+public interface PersonRepository extends JpaRepository<Person, Long> {
+
+    /**
+     * Возвращает id человека с таким именем, создавая запись при необходимости.
+     * ON CONFLICT делает вызов безопасным при одновременном создании одного имени.
+     */
+    @Query(value = """
+            INSERT INTO people (name) VALUES (:name)
+            ON CONFLICT (name) DO UPDATE SET name = EXCLUDED.name
+            RETURNING id
+            """, nativeQuery = true)
+    long upsertByName(@Param("name") String name);
+
+    List<Person> findAllByOrderByNameAsc();
+}
@@ -0,0 +1,33 @@
+package ru.greemlab.neirocalendar.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import ru.greemlab.neirocalendar.domain.entity.Tariff;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Репозиторий для работы с таблицей "tariffs".
+ * Цену для конкретной записи считает SQL-функция attendance_price (db.changelog-1.3.sql).
+ */
+public interface TariffRepository extends JpaRepository<Tariff, Long> {
+
+    /**
+     * Создаёт тариф или меняет цену существующего с тем же (personId, effectiveFrom).
+     *
+     * @return id тарифа
+     */
+    @Query(value = """
+            INSERT INTO tariffs (person_id, effective_from, price) VALUES (:personId, :effectiveFrom, :price)
+            ON CONFLICT (person_id, effective_from) DO UPDATE SET price = EXCLUDED.price
+            RETURNING id
+            """, nativeQuery = true)
+    long upsert(@Param("personId") Long personId,
+                @Param("effectiveFrom") LocalDate effectiveFrom,
+                @Param("price") int price);
+
+    @Query("SELECT t FROM Tariff t ORDER BY t.personId ASC NULLS FIRST, t.effectiveFrom ASC")
+    List<Tariff> findAllOrdered();
+}
@@ -0,0 +1,16 @@
+package ru.greemlab.neirocalendar.repository.projection;
+
+import java.time.LocalDate;
+
+/**
+ * Строка attendance_records без имени: имя подставляет UserAttendanceRecordMap
+ * из PersonDirectory, чтобы все DTO одного человека делили один экземпляр String.
+ */
+public record AttendanceRecordRow(
+        Long id,
+        Long personId,
+        LocalDate visitDate,
+        Boolean attended,
+        Long version
+) {
+}
@@ -0,0 +1,14 @@
+package ru.greemlab.neirocalendar.repository.projection;
+
+/**
+ * Проекция агрегированных итогов по записям за период:
+ * общее количество записей, количество отмеченных посещений и заработок по тарифам.
+ */
+public interface AttendanceTotalsProjection {
+
+    long getTotalCount();
+
+    long getAttendedCount();
+
+    long getEarnings();
+}
@@ -0,0 +1,11 @@
+package ru.greemlab.neirocalendar.repository.projection;
+
+/**
+ * Сохранённый результат применённой операции для ключа идемпотентности
+ */
+public record MutationOutcome(
+        String key,
+        Long recordId,
+        Long version
+) {
+}
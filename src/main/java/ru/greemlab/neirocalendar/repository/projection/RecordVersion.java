@@ -0,0 +1,13 @@
+package ru.greemlab.neirocalendar.repository.projection;
+
+import java.time.LocalDate;
+
+/**
+ * Запись, затронутая пакетной операцией: ID, дата (для пересчёта итогов и кэша) и версия после операции
+ */
+public record RecordVersion(
+        Long id,
+        LocalDate visitDate,
+        Long version
+) {
+}
@@ -0,0 +1,15 @@
+package ru.greemlab.neirocalendar.repository.projection;
+
+import java.time.LocalDate;
+
+/**
+ * Строка отчёта из БД: ключ группы (periodStart или personId) и суммы
+ */
+public record ReportRow(
+        LocalDate periodStart,
+        Long personId,
+        long totalCount,
+        long attendedCount,
+        long earnings
+) {
+}
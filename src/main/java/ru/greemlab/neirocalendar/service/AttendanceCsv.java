@@ -0,0 +1,104 @@
+package ru.greemlab.neirocalendar.service;
+
+import ru.greemlab.neirocalendar.domain.dto.AttendanceRecordDto;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Формат CSV для выгрузки записей посещаемости (RFC 4180, разделитель — запятая).
+ */
+public final class AttendanceCsv {
+
+    /**
+     * Строка заголовка, порядок колонок совпадает с writeRow
+     */
+    public static final String HEADER = "id,person_id,person_name,visit_date,attended";
+
+    private AttendanceCsv() {
+    }
+
+    /**
+     * Пишет одну запись строкой CSV (с переводом строки)
+     */
+    public static void writeRow(Writer out, AttendanceRecordDto record) throws IOException {
+        out.write(String.valueOf(record.id()));
+        out.write(',');
+        out.write(String.valueOf(record.personId()));
+        out.write(',');
+        writeField(out, record.personName());
+        out.write(',');
+        out.write(record.visitDate().toString());
+        out.write(',');
+        out.write(String.valueOf(Boolean.TRUE.equals(record.attended())));
+        out.write('\n');
+    }
+
+    /**
+     * Разбивает запись CSV на поля с учётом кавычек. Запись передаётся целиком:
+     * поле в кавычках может содержать перевод строки.
+     *
+     * @throws IllegalArgumentException если кавычки не закрыты
+     */
+    public static List<String> parseLine(String line) {
+        List<String> fields = new ArrayList<>();
+        var field = new StringBuilder();
+        var quoted = false;
+        for (var i = 0; i < line.length(); i++) {
+            var ch = line.charAt(i);
+            if (quoted) {
+                if (ch != '"') {
+                    field.append(ch);
+                } else if (i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else {
+                    quoted = false;
+                }
+            } else if (ch == '"') {
+                quoted = true;
+            } else if (ch == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(ch);
+            }
+        }
+        if (quoted) {
+            throw new IllegalArgumentException("незакрытая кавычка");
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+
+    /**
+     * Меняет ли строка состояние «внутри кавычек»: каждая кавычка открывает или закрывает поле,
+     * экранированная "" — две кавычки, поэтому достаточно чётности их числа.
+     * Запись, начатая строкой с нечётным числом кавычек, продолжается на следующей строке
+     */
+    static boolean togglesQuote(String line) {
+        var quotes = 0;
+        for (var i = 0; i < line.length(); i++) {
+            if (line.charAt(i) == '"') {
+                quotes++;
+            }
+        }
+        return quotes % 2 != 0;
+    }
+
+    /**
+     * Имя берётся в кавычки, только если содержит разделитель, кавычку или перевод строки
+     */
+    private static void writeField(Writer out, String value) throws IOException {
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0
+                && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            out.write(value);
+            return;
+        }
+        out.write('"');
+        out.write(value.replace("\"", "\"\""));
+        out.write('"');
+    }
+}
@@ -0,0 +1,243 @@
+package ru.greemlab.neirocalendar.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import ru.greemlab.neirocalendar.domain.dto.AttendanceRecordDto;
+import ru.greemlab.neirocalendar.domain.dto.ImportErrorDto;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Потоковый разбор файла импорта посещаемости: CSV с заголовком или NDJSON.
+ * Каждая строка проверяется отдельно; некорректные пропускаются и попадают
+ * в отчёт об ошибках, корректные отдаются дальше по одной, без накопления в памяти.
+ * <p>
+ * CSV: колонки person_name, visit_date и (необязательно) attended в любом порядке,
+ * остальные (например, id из выгрузки /export) игнорируются. Поле в кавычках может содержать
+ * перевод строки (так /export пишет такие имена): запись продолжается на следующих строках файла,
+ * перевод строки внутри поля читается как \n.
+ * NDJSON: объекты вида {"personName": ..., "visitDate": ..., "attended": ...}.
+ * <p>
+ * Экземпляр одноразовый и не потокобезопасный.
+ */
+public final class AttendanceImportParser {
+
+    /**
+     * Сколько ошибок попадает в отчёт; остальные только считаются
+     */
+    public static final int MAX_REPORTED_ERRORS = 100;
+
+    /**
+     * Ограничение колонки person_name (VARCHAR(255))
+     */
+    private static final int MAX_NAME_LENGTH = 255;
+
+    /**
+     * Предел длины записи CSV из нескольких строк: незакрытая кавычка не поглощает весь файл
+     */
+    private static final int MAX_ROW_LENGTH = 64 * 1024;
+
+    private final ObjectMapper objectMapper;
+    private final boolean csv;
+
+    private final List<ImportErrorDto> errors = new ArrayList<>();
+    private long lineNumber;
+    // Первая строка файла текущей записи — для отчёта об ошибках
+    private long rowLine;
+    private long received;
+    private long rejected;
+
+    // Позиции колонок из заголовка CSV
+    private int nameColumn = -1;
+    private int dateColumn = -1;
+    private int attendedColumn = -1;
+
+    public AttendanceImportParser(ObjectMapper objectMapper, boolean csv) {
+        this.objectMapper = objectMapper;
+        this.csv = csv;
+    }
+
+    /**
+     * Ленивый поток корректных записей. Заголовок CSV читается сразу,
+     * остальные строки — из reader по мере потребления.
+     *
+     * @throws IllegalArgumentException если в заголовке CSV нет обязательных колонок
+     */
+    public Stream<AttendanceRecordDto> parse(BufferedReader reader) {
+        if (csv) {
+            readHeader(reader);
+        }
+        var rows = Spliterators.spliteratorUnknownSize(rows(reader.lines().iterator()),
+                Spliterator.ORDERED | Spliterator.NONNULL);
+        return StreamSupport.stream(rows, false)
+                .map(this::parseRow)
+                .filter(Objects::nonNull);
+    }
+
+    public long received() {
+        return received;
+    }
+
+    public long rejected() {
+        return rejected;
+    }
+
+    public List<ImportErrorDto> errors() {
+        return Collections.unmodifiableList(errors);
+    }
+
+    /**
+     * Записи файла: для CSV строка с незакрытой кавычкой продолжается следующими строками
+     */
+    private Iterator<String> rows(Iterator<String> lines) {
+        return new Iterator<>() {
+            @Override
+            public boolean hasNext() {
+                return lines.hasNext();
+            }
+
+            @Override
+            public String next() {
+                var line = lines.next();
+                rowLine = ++lineNumber;
+                if (!csv || !AttendanceCsv.togglesQuote(line)) {
+                    return line;
+                }
+                var row = new StringBuilder(line);
+                var quoted = true;
+                while (quoted && lines.hasNext() && row.length() <= MAX_ROW_LENGTH) {
+                    line = lines.next();
+                    lineNumber++;
+                    row.append('\n').append(line);
+                    quoted = !AttendanceCsv.togglesQuote(line);
+                }
+                return row.toString();
+            }
+        };
+    }
+
+    private AttendanceRecordDto parseRow(String row) {
+        if (row.isBlank()) {
+            return null;
+        }
+        received++;
+        try {
+            return csv ? parseCsv(row) : parseJson(row);
+        } catch (IllegalArgumentException e) {
+            reject(e.getMessage());
+            return null;
+        }
+    }
+
+    private void readHeader(BufferedReader reader) {
+        String line;
+        try {
+            do {
+                line = reader.readLine();
+                lineNumber++;
+            } while (line != null && line.isBlank());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        if (line == null) {
+            throw new IllegalArgumentException("Пустой файл: нет заголовка CSV");
+        }
+        var columns = AttendanceCsv.parseLine(line.strip());
+        for (var i = 0; i < columns.size(); i++) {
+            switch (columns.get(i).strip().replace("_", "").toLowerCase(Locale.ROOT)) {
+                case "personname" -> nameColumn = i;
+                case "visitdate" -> dateColumn = i;
+                case "attended" -> attendedColumn = i;
+                default -> {
+                    // лишние колонки пропускаем
+                }
+            }
+        }
+        if (nameColumn < 0 || dateColumn < 0) {
+            throw new IllegalArgumentException("В заголовке CSV нет колонок person_name и visit_date");
+        }
+    }
+
+    private AttendanceRecordDto parseCsv(String line) {
+        var fields = AttendanceCsv.parseLine(line);
+        var required = Math.max(nameColumn, Math.max(dateColumn, attendedColumn)) + 1;
+        if (fields.size() < required) {
+            throw new IllegalArgumentException("ожидается колонок: " + required + ", получено: " + fields.size());
+        }
+        return toRecord(
+                fields.get(nameColumn),
+                fields.get(dateColumn),
+                attendedColumn >= 0 ? fields.get(attendedColumn) : null
+        );
+    }
+
+    private AttendanceRecordDto parseJson(String line) {
+        JsonNode node;
+        try {
+            node = objectMapper.readTree(line);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("некорректный JSON: " + e.getOriginalMessage());
+        }
+        if (!node.isObject()) {
+            throw new IllegalArgumentException("ожидается JSON-объект");
+        }
+        return toRecord(
+                node.path("personName").asText(null),
+                node.path("visitDate").asText(null),
+                node.path("attended").asText(null)
+        );
+    }
+
+    private AttendanceRecordDto toRecord(String personName, String visitDate, String attended) {
+        var name = personName != null ? personName.strip() : "";
+        if (name.isEmpty()) {
+            throw new IllegalArgumentException("не указано имя (personName)");
+        }
+        if (name.length() > MAX_NAME_LENGTH || name.indexOf('\0') >= 0) {
+            throw new IllegalArgumentException("имя длиннее " + MAX_NAME_LENGTH + " символов или содержит \\0");
+        }
+        if (visitDate == null || visitDate.isBlank()) {
+            throw new IllegalArgumentException("не указана дата (visitDate)");
+        }
+        LocalDate date;
+        try {
+            date = LocalDate.parse(visitDate.strip());
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("дата не в формате yyyy-MM-dd: " + visitDate);
+        }
+        return new AttendanceRecordDto(null, null, name, date, parseAttended(attended), null);
+    }
+
+    private static boolean parseAttended(String value) {
+        if (value == null) {
+            return false;
+        }
+        return switch (value.strip().toLowerCase(Locale.ROOT)) {
+            case "", "false", "0" -> false;
+            case "true", "1" -> true;
+            default -> throw new IllegalArgumentException("attended должно быть true/false или 1/0: " + value);
+        };
+    }
+
+    private void reject(String message) {
+        rejected++;
+        if (errors.size() < MAX_REPORTED_ERRORS) {
+            errors.add(new ImportErrorDto(rowLine, message));
+        }
+    }
+}
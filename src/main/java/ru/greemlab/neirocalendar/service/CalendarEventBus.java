@@ -0,0 +1,201 @@
+package ru.greemlab.neirocalendar.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.ContextClosedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import ru.greemlab.neirocalendar.config.CalendarProperties;
+import ru.greemlab.neirocalendar.domain.dto.CalendarChangeDto;
+import ru.greemlab.neirocalendar.domain.event.AttendanceChangedEvent;
+
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Рассылка изменений календаря подписчикам потока /events.
+ * Сообщение сериализуется в JSON один раз на всех подписчиков и кладётся в ограниченный буфер
+ * каждого; отправляет его отдельная задача подписчика, поэтому публикация не ждёт медленных клиентов.
+ * Подписчик, буфер которого переполнен, отключается: держать для него сообщения дольше нельзя,
+ * а пропуск сообщений испортил бы страницу — клиент перезагружает её целиком.
+ */
+@Slf4j
+@Component
+public class CalendarEventBus {
+
+    private final int bufferSize;
+    private final Executor executor;
+    private final ObjectMapper objectMapper;
+    private final Set<Subscription> subscriptions = ConcurrentHashMap.newKeySet();
+    private final Counter overflows;
+
+    @Autowired
+    public CalendarEventBus(CalendarProperties properties, ObjectMapper objectMapper, MeterRegistry registry) {
+        // Задача отправки блокируется на записи в сокет — виртуальный поток на подписчика дешевле пула
+        this(properties.events().bufferSize(), Executors.newVirtualThreadPerTaskExecutor(), objectMapper, registry);
+    }
+
+    CalendarEventBus(int bufferSize, Executor executor, ObjectMapper objectMapper, MeterRegistry registry) {
+        this.bufferSize = bufferSize;
+        this.executor = executor;
+        this.objectMapper = objectMapper;
+        Gauge.builder("calendar.events.subscribers", subscriptions, Set::size)
+                .description("Открытых подписок на поток изменений")
+                .register(registry);
+        this.overflows = Counter.builder("calendar.events.overflows")
+                .description("Подписчиков отключено из-за переполнения буфера")
+                .register(registry);
+    }
+
+    /**
+     * Получатель сообщений одной подписки. Методы вызываются из задачи отправки, не из публикующего потока.
+     */
+    public interface Sink {
+
+        /**
+         * Отправить сообщение (CalendarChangeDto в JSON). Исключение отключает подписку.
+         */
+        void send(String json) throws Exception;
+
+        /**
+         * Подписка закрыта со стороны сервера
+         *
+         * @param overflowed подписчик не успевал получать сообщения и часть изменений пропустил
+         */
+        void close(boolean overflowed);
+    }
+
+    /**
+     * Подписаться на изменения
+     */
+    public Subscription subscribe(Sink sink) {
+        var subscription = new Subscription(sink);
+        subscriptions.add(subscription);
+        return subscription;
+    }
+
+    /**
+     * Разослать изменение всем подписчикам. Не блокируется: только кладёт сообщение в буферы.
+     */
+    public void publish(CalendarChangeDto change) {
+        if (subscriptions.isEmpty()) {
+            return;
+        }
+        String json;
+        try {
+            json = objectMapper.writeValueAsString(change);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+        for (var subscription : subscriptions) {
+            subscription.offer(json);
+        }
+    }
+
+    /**
+     * Рассылает изменения после коммита транзакции — подписчик не увидит то, что откатилось
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAttendanceChanged(AttendanceChangedEvent event) {
+        publish(new CalendarChangeDto(event.months(), event.records()));
+    }
+
+    /**
+     * Закрывает потоки до остановки веб-сервера: иначе плавная остановка ждала бы каждое открытое соединение
+     */
+    @EventListener(ContextClosedEvent.class)
+    public void closeAll() {
+        for (var subscription : List.copyOf(subscriptions)) {
+            subscription.close(false, true);
+        }
+    }
+
+    public int subscriberCount() {
+        return subscriptions.size();
+    }
+
+    /**
+     * Подписка: ограниченный буфер сообщений и не больше одной задачи отправки одновременно
+     */
+    public final class Subscription {
+
+        private final Sink sink;
+        private final ArrayBlockingQueue<String> buffer = new ArrayBlockingQueue<>(bufferSize);
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private final AtomicBoolean closed = new AtomicBoolean();
+
+        private Subscription(Sink sink) {
+            this.sink = sink;
+        }
+
+        /**
+         * Отписаться (клиент отключился). Sink.close не вызывается.
+         */
+        public void cancel() {
+            close(false, false);
+        }
+
+        /**
+         * Сколько сообщений ждут отправки
+         */
+        public int pending() {
+            return buffer.size();
+        }
+
+        private void offer(String json) {
+            if (closed.get()) {
+                return;
+            }
+            if (!buffer.offer(json)) {
+                overflows.increment();
+                log.debug("Event subscriber overflowed {} buffered messages, disconnecting", bufferSize);
+                close(true, true);
+                return;
+            }
+            if (draining.compareAndSet(false, true)) {
+                executor.execute(this::drain);
+            }
+        }
+
+        private void drain() {
+            try {
+                do {
+                    String json;
+                    while (!closed.get() && (json = buffer.poll()) != null) {
+                        sink.send(json);
+                    }
+                    draining.set(false);
+                    // Сообщение могло попасть в буфер после последнего poll, но до сброса флага
+                } while (!closed.get() && !buffer.isEmpty() && draining.compareAndSet(false, true));
+            } catch (Exception e) {
+                log.debug("Event subscriber failed, disconnecting: {}", e.toString());
+                draining.set(false);
+                close(false, false);
+            }
+        }
+
+        private void close(boolean overflowed, boolean notifySink) {
+            if (!closed.compareAndSet(false, true)) {
+                return;
+            }
+            subscriptions.remove(this);
+            buffer.clear();
+            if (notifySink) {
+                // Закрытие тоже пишет в сокет — не в публикующем потоке
+                executor.execute(() -> sink.close(overflowed));
+            }
+        }
+    }
+}
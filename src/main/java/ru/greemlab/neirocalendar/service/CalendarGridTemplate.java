@@ -0,0 +1,158 @@
+package ru.greemlab.neirocalendar.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import ru.greemlab.neirocalendar.domain.dto.AttendanceRecordDto;
+import ru.greemlab.neirocalendar.domain.dto.DayCellDto;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Неизменяемый каркас сетки календаря: несколько недель по 7 дней, неделя начинается
+ * с понедельника. Для месяца это 6 недель (42 ячейки); такие каркасы вычисляются один раз
+ * на (год, месяц) и кэшируются. Записи раскладываются по индексу дня в сетке,
+ * без поиска по LocalDate.
+ */
+public final class CalendarGridTemplate {
+
+    public static final int WEEKS_TO_SHOW = 6;
+    public static final int DAYS_IN_WEEK = 7;
+
+    // Каркасы крошечные, но год в запросе произвольный — ограничиваем размер
+    private static final Cache<YearMonth, CalendarGridTemplate> TEMPLATES = Caffeine.newBuilder()
+            .maximumSize(240)
+            .build();
+
+    private final int weeks;
+    private final long startEpochDay;
+    private final LocalDate[] dates;
+    private final boolean[] inCurrentMonth;
+
+    /**
+     * @param from  любой день первой недели сетки
+     * @param weeks количество недель
+     * @param month месяц, дни которого отмечаются как inCurrentMonth
+     */
+    private CalendarGridTemplate(LocalDate from, int weeks, YearMonth month) {
+        var start = from.minusDays(from.getDayOfWeek().getValue() - 1);
+        this.weeks = weeks;
+        this.startEpochDay = start.toEpochDay();
+        this.dates = new LocalDate[weeks * DAYS_IN_WEEK];
+        this.inCurrentMonth = new boolean[dates.length];
+
+        var current = start;
+        for (int i = 0; i < dates.length; i++) {
+            dates[i] = current;
+            inCurrentMonth[i] = YearMonth.from(current).equals(month);
+            current = current.plusDays(1);
+        }
+    }
+
+    /**
+     * Каркас сетки для указанного месяца (из кэша).
+     */
+    public static CalendarGridTemplate of(int year, int month) {
+        return TEMPLATES.get(YearMonth.of(year, month),
+                ym -> new CalendarGridTemplate(ym.atDay(1), WEEKS_TO_SHOW, ym));
+    }
+
+    /**
+     * Каркас из нескольких недель, начиная с недели, содержащей from.
+     * Текущим считается месяц дня from.
+     */
+    public static CalendarGridTemplate window(LocalDate from, int weeks) {
+        return new CalendarGridTemplate(from, weeks, YearMonth.from(from));
+    }
+
+    /**
+     * Месяцы, в сетке которых виден этот день: его собственный месяц
+     * и, если день попадает в крайние недели, соседний.
+     */
+    public static Set<YearMonth> monthsShowing(LocalDate date) {
+        var month = YearMonth.from(date);
+        var previous = month.minusMonths(1);
+        var next = month.plusMonths(1);
+        if (of(previous.getYear(), previous.getMonthValue()).indexOf(date) >= 0) {
+            return Set.of(previous, month);
+        }
+        if (of(next.getYear(), next.getMonthValue()).indexOf(date) >= 0) {
+            return Set.of(month, next);
+        }
+        return Set.of(month);
+    }
+
+    /**
+     * Первый день сетки (понедельник)
+     */
+    public LocalDate start() {
+        return dates[0];
+    }
+
+    /**
+     * Последний день сетки (воскресенье)
+     */
+    public LocalDate end() {
+        return dates[dates.length - 1];
+    }
+
+    /**
+     * Индекс дня в сетке (для месяца 0..41) или -1, если день в сетку не попадает.
+     */
+    public int indexOf(LocalDate date) {
+        var index = date.toEpochDay() - startEpochDay;
+        return index >= 0 && index < dates.length ? (int) index : -1;
+    }
+
+    /**
+     * Раскладывает записи по ячейкам сетки. Записи вне сетки игнорируются.
+     *
+     * @param records записи (порядок внутри дня сохраняется)
+     * @return неизменяемый 2D список: недели по 7 дней
+     */
+    public List<List<DayCellDto>> fill(List<AttendanceRecordDto> records) {
+        @SuppressWarnings("unchecked")
+        List<AttendanceRecordDto>[] slots = new List[dates.length];
+        for (var rec : records) {
+            var index = indexOf(rec.visitDate());
+            if (index < 0) {
+                continue;
+            }
+            if (slots[index] == null) {
+                slots[index] = new ArrayList<>();
+            }
+            slots[index].add(rec);
+        }
+
+        var result = new ArrayList<List<DayCellDto>>(weeks);
+        for (int w = 0; w < weeks; w++) {
+            var week = new DayCellDto[DAYS_IN_WEEK];
+            for (int d = 0; d < DAYS_IN_WEEK; d++) {
+                var i = w * DAYS_IN_WEEK + d;
+                var recs = slots[i] == null ? List.<AttendanceRecordDto>of() : Collections.unmodifiableList(slots[i]);
+                week[d] = new DayCellDto(dates[i], inCurrentMonth[i], recs);
+            }
+            result.add(List.of(week));
+        }
+        return List.copyOf(result);
+    }
+
+    /**
+     * Оставляет в каждой неделе только указанные столбцы (0 — понедельник, 6 — воскресенье).
+     */
+    public static List<List<DayCellDto>> selectColumns(List<List<DayCellDto>> weeks, int[] columns) {
+        var result = new ArrayList<List<DayCellDto>>(weeks.size());
+        for (var week : weeks) {
+            var row = new DayCellDto[columns.length];
+            for (int c = 0; c < columns.length; c++) {
+                row[c] = week.get(columns[c]);
+            }
+            result.add(List.of(row));
+        }
+        return List.copyOf(result);
+    }
+}
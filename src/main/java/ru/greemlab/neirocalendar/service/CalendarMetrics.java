@@ -0,0 +1,85 @@
+package ru.greemlab.neirocalendar.service;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * Метрики горячих путей календаря, которых нет среди автоматических
+ * (таймеры сервиса — @Timed, репозитория — spring.data.repository.invocations).
+ * Теги ограничены по количеству значений, чтобы не раздувать Prometheus.
+ */
+@Component
+@RequiredArgsConstructor
+public class CalendarMetrics {
+
+    private final MeterRegistry registry;
+
+    /**
+     * Сколько строк вернул (или изменил) запрос к attendance_records за период.
+     *
+     * @param query короткое имя запроса
+     * @param start начало периода
+     * @param end   конец периода
+     * @param rows  количество строк
+     */
+    public void recordRows(String query, LocalDate start, LocalDate end, long rows) {
+        DistributionSummary.builder("calendar.query.rows")
+                .description("Строк вернул запрос к attendance_records")
+                .tag("query", query)
+                .tag("span", spanOf(start, end))
+                .publishPercentileHistogram()
+                .register(registry)
+                .record(rows);
+    }
+
+    /**
+     * Сколько строк ушло одним пакетом при повторяющейся записи на занятия.
+     */
+    public void recordBookingBatch(int rows) {
+        DistributionSummary.builder("calendar.booking.batch.rows")
+                .description("Строк в одном пакетном INSERT повторяющейся записи")
+                .publishPercentileHistogram()
+                .register(registry)
+                .record(rows);
+    }
+
+    /**
+     * Итог одного импорта: загруженные строки и длительность (скорость — rows / duration).
+     */
+    public void recordImport(long rows, Duration elapsed) {
+        DistributionSummary.builder("calendar.import.rows")
+                .description("Строк загружено одним импортом")
+                .register(registry)
+                .record(rows);
+        Timer.builder("calendar.import.duration")
+                .description("Длительность разбора и загрузки импорта")
+                .register(registry)
+                .record(elapsed);
+    }
+
+    /**
+     * Грубая длина периода: day, week, month (сетка месяца — до 42 дней), quarter, year, multi-year
+     */
+    static String spanOf(LocalDate start, LocalDate end) {
+        var days = ChronoUnit.DAYS.between(start, end) + 1;
+        if (days <= 1) {
+            return "day";
+        } else if (days <= 7) {
+            return "week";
+        } else if (days <= 42) {
+            return "month";
+        } else if (days <= 93) {
+            return "quarter";
+        } else if (days <= 366) {
+            return "year";
+        }
+        return "multi-year";
+    }
+}
@@ -0,0 +1,125 @@
+package ru.greemlab.neirocalendar.service;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import ru.greemlab.neirocalendar.config.CalendarProperties;
+import ru.greemlab.neirocalendar.domain.dto.CacheStatsDto;
+import ru.greemlab.neirocalendar.domain.dto.CalendarDataDto;
+import ru.greemlab.neirocalendar.domain.event.AttendanceChangedEvent;
+
+import java.time.YearMonth;
+import java.time.temporal.ChronoUnit;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Ограниченный по размеру кэш подготовленных данных календаря по ключу (год, месяц).
+ * Месяцы сбрасываются точечно после коммита изменяющих операций CalendarService.
+ * <p>
+ * Кэш асинхронный: месяц строит запрос, первым промахнувшийся по ключу, — вне блокировки Caffeine,
+ * остальные запросы того же месяца ждут его результата. Синхронный Cache.get строил бы месяц внутри
+ * ConcurrentHashMap.compute (synchronized): в Java 21 виртуальный поток, ждущий там БД или задачу
+ * applicationTaskExecutor, занимает поток-носитель, и при нескольких промахах сразу носителей
+ * не остаётся для самих задач.
+ */
+@Slf4j
+@Component
+public class CalendarMonthCache {
+
+    private final AsyncCache<YearMonth, CalendarDataDto> cache;
+    private final LongAdder invalidations = new LongAdder();
+    private final MeterRegistry registry;
+
+    public CalendarMonthCache(CalendarProperties properties, MeterRegistry registry) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(properties.cache().maxMonths())
+                .recordStats()
+                .buildAsync();
+        this.registry = registry;
+        CaffeineCacheMetrics.monitor(registry, cache, "calendar.month");
+    }
+
+    /**
+     * Возвращает данные месяца из кэша, при промахе строит их через loader.
+     * Время построения пишется в таймер calendar.month.build с тегом смещения месяца от текущего.
+     */
+    public CalendarDataDto get(YearMonth month, Function<YearMonth, CalendarDataDto> loader) {
+        var building = new CompletableFuture<CalendarDataDto>();
+        var future = cache.get(month, (key, executor) -> building);
+        if (future == building) {
+            try {
+                building.complete(Timer.builder("calendar.month.build")
+                        .description("Построение данных месяца при промахе кэша")
+                        .tag("offset", offsetOf(month))
+                        .publishPercentileHistogram()
+                        .register(registry)
+                        .record(() -> loader.apply(month)));
+            } catch (RuntimeException e) {
+                // Caffeine убирает неудачный результат — следующий запрос построит месяц заново
+                building.completeExceptionally(e);
+                throw e;
+            }
+        }
+        return join(future);
+    }
+
+    /**
+     * Сбрасывает изменившиеся месяцы (после коммита транзакции).
+     * Раньше рассылки /events: получив событие, страница сразу запрашивает ячейки дня.
+     */
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAttendanceChanged(AttendanceChangedEvent event) {
+        log.debug("Invalidate cached months {}", event.months());
+        cache.synchronous().invalidateAll(event.months());
+        invalidations.add(event.months().size());
+    }
+
+    /**
+     * Смещение месяца от текущего (-12..12), дальше — older/later
+     */
+    private static String offsetOf(YearMonth month) {
+        var offset = ChronoUnit.MONTHS.between(YearMonth.now(), month);
+        if (offset < -12) {
+            return "older";
+        } else if (offset > 12) {
+            return "later";
+        }
+        return Long.toString(offset);
+    }
+
+    public CacheStatsDto stats() {
+        var stats = cache.synchronous().stats();
+        return new CacheStatsDto(
+                cache.synchronous().estimatedSize(),
+                stats.hitCount(),
+                stats.missCount(),
+                stats.evictionCount(),
+                invalidations.sum()
+        );
+    }
+
+    /**
+     * Результат построения; исключение пробрасывается как есть, а не в CompletionException
+     */
+    private static <T> T join(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+}
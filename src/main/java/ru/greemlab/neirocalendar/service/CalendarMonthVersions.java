@@ -0,0 +1,36 @@
+package ru.greemlab.neirocalendar.service;
+
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import ru.greemlab.neirocalendar.domain.event.AttendanceChangedEvent;
+
+import java.time.YearMonth;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Версии месяцев календаря для условных GET-запросов (ETag).
+ * Версия месяца увеличивается после коммита каждой изменяющей операции CalendarService.
+ * Счётчики живут в памяти, поэтому в ETag входит идентификатор запуска приложения:
+ * после рестарта все ранее выданные ETag становятся недействительными.
+ */
+@Component
+public class CalendarMonthVersions {
+
+    private final String bootId = Long.toString(System.currentTimeMillis(), 36);
+    private final ConcurrentMap<YearMonth, Long> versions = new ConcurrentHashMap<>();
+
+    /**
+     * Сильный ETag (без кавычек) для текущей версии месяца.
+     */
+    public String etag(YearMonth month) {
+        return bootId + "-" + month + "-" + versions.getOrDefault(month, 0L);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAttendanceChanged(AttendanceChangedEvent event) {
+        for (var month : event.months()) {
+            versions.merge(month, 1L, Long::sum);
+        }
+    }
+}
@@ -1,91 +1,376 @@
 package ru.greemlab.neirocalendar.service;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import jakarta.persistence.EntityNotFoundException;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import ru.greemlab.neirocalendar.config.CalendarProperties;
+import ru.greemlab.neirocalendar.domain.dto.AttendanceImportResultDto;
 import ru.greemlab.neirocalendar.domain.dto.AttendanceRecordDto;
+import ru.greemlab.neirocalendar.domain.dto.AttendanceTotalsDto;
 import ru.greemlab.neirocalendar.domain.dto.DaySummaryDto;
+import ru.greemlab.neirocalendar.domain.dto.MutationBatchResultDto;
+import ru.greemlab.neirocalendar.domain.dto.MutationOperationDto;
+import ru.greemlab.neirocalendar.domain.dto.MutationResultDto;
+import ru.greemlab.neirocalendar.domain.dto.MutationStatus;
+import ru.greemlab.neirocalendar.domain.dto.MutationType;
+import ru.greemlab.neirocalendar.domain.dto.PersonDto;
+import ru.greemlab.neirocalendar.domain.dto.PersonStatsDto;
+import ru.greemlab.neirocalendar.domain.dto.RecordChangeDto;
+import ru.greemlab.neirocalendar.domain.dto.ReportBucketDto;
+import ru.greemlab.neirocalendar.domain.dto.ReportDto;
+import ru.greemlab.neirocalendar.domain.dto.ReportGroupBy;
 import ru.greemlab.neirocalendar.domain.entity.AttendanceRecord;
+import ru.greemlab.neirocalendar.domain.event.AttendanceChangedEvent;
 import ru.greemlab.neirocalendar.mapper.UserAttendanceRecordMap;
 import ru.greemlab.neirocalendar.repository.AttendanceRecordRepository;
+import ru.greemlab.neirocalendar.repository.DailyRollupRepository;
+import ru.greemlab.neirocalendar.repository.PersonRepository;
+import ru.greemlab.neirocalendar.repository.projection.MutationOutcome;
+import ru.greemlab.neirocalendar.repository.projection.RecordVersion;
 
+import java.io.BufferedReader;
+import java.io.Reader;
+import java.time.Duration;
+import java.time.Instant;
 import java.time.LocalDate;
 import java.util.ArrayList;
-import java.util.Comparator;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 @Slf4j
 @Service
 @RequiredArgsConstructor
+@Timed(value = "calendar.service", histogram = true)
 public class CalendarService {
 
     /**
-     * Цена одного посещения
+     * Длина attendance_mutations.idempotency_key
      */
-    private static final int COST_PER_ATTENDANCE = 1250;
+    private static final int MAX_MUTATION_KEY_LENGTH = 64;
+
+    /**
+     * Длина people.name
+     */
+    private static final int MAX_PERSON_NAME_LENGTH = 255;
 
     private final AttendanceRecordRepository repository;
+    private final PersonRepository personRepository;
+    private final DailyRollupRepository rollupRepository;
     private final UserAttendanceRecordMap mapper;
+    private final CalendarProperties properties;
+    private final ApplicationEventPublisher eventPublisher;
+    private final CalendarMetrics metrics;
+    private final ObjectMapper objectMapper;
+    private final PersonDirectory people;
 
     /**
-     * Создать / обновить запись
+     * Создать / обновить запись.
+     * Обновляется только существующая запись; если в dto есть version, она должна совпадать с текущей.
+     *
+     * @throws EntityNotFoundException                   если записи с dto.id() нет
+     * @throws ObjectOptimisticLockingFailureException если запись уже изменил другой запрос
      */
     @Transactional
     public void saveAttendance(AttendanceRecordDto dto) {
         AttendanceRecord entity;
+        List<RecordChangeDto> changes = new ArrayList<>(2);
         if (dto.id() != null) {
-            // Если уже есть ID, найдём в БД, иначе создаём новый
-            entity = repository.findById(dto.id()).orElse(new AttendanceRecord());
+            // Неизвестный ID — ошибка, а не новая запись: иначе повтор запроса создаёт дубликат
+            entity = repository.findById(dto.id())
+                    .orElseThrow(() -> new EntityNotFoundException("Запись не найдена: " + dto.id()));
+            if (dto.version() != null && !dto.version().equals(entity.getVersion())) {
+                throw new ObjectOptimisticLockingFailureException(AttendanceRecord.class, dto.id());
+            }
         } else {
             entity = new AttendanceRecord();
         }
+        if (entity.getId() != null) {
+            // Запись могла переехать в другой день или месяц: для подписчиков это удаление и создание
+            changes.add(RecordChangeDto.deleted(entity.getId(), entity.getVersion(), entity.getVisitDate()));
+        }
 
-        entity.setPersonName(dto.personName());
+        entity.setPersonId(people.idOf(dto.personName()));
         entity.setVisitDate(dto.visitDate());
         entity.setAttended(dto.attended() != null ? dto.attended() : false);
 
-        var saved = repository.save(entity);
-        mapper.toDto(saved);
+        // flush сразу, чтобы в событие попала версия после UPDATE
+        var saved = repository.saveAndFlush(entity);
+        var record = mapper.toDto(saved);
+
+        changes.add(RecordChangeDto.created(record.id(), record.version(), record.personName(),
+                record.visitDate(), record.attended()));
+        publishChanged(changes);
     }
 
     /**
-     * Создать / обновить запись на 3 месяца
+     * Создать еженедельные записи на горизонт бронирования (по умолчанию 3 месяца).
+     * Все даты вычисляются заранее и сохраняются одним пакетным INSERT-ом.
      */
     @Transactional
     public void saveAttendanceFor3Month(String personName, LocalDate startDate) {
-        var endDate = startDate.plusMonths(1);
+        var endDate = startDate.plusMonths(properties.booking().horizonMonths());
+        var personId = people.idOf(personName);
         var current = startDate;
 
+        List<AttendanceRecordDto> occurrences = new ArrayList<>();
         while (!current.isAfter(endDate)) {
-            var dto = new AttendanceRecordDto(null, personName, current, false);
-            saveAttendance(dto);
+            occurrences.add(new AttendanceRecordDto(null, personId, personName, current, false, null));
             current = current.plusWeeks(1);
         }
+        var created = repository.insertAll(occurrences);
+        metrics.recordBookingBatch(occurrences.size());
+        publishChanged(created.stream()
+                .map(record -> RecordChangeDto.created(record.id(), record.version(), personName, record.visitDate(), false))
+                .toList());
+    }
+
+    /**
+     * Импортировать записи из CSV или NDJSON (см. AttendanceImportParser) одной командой COPY.
+     * Некорректные строки пропускаются и попадают в отчёт, остальные загружаются в одной транзакции.
+     *
+     * @throws IllegalArgumentException если в заголовке CSV нет обязательных колонок
+     */
+    @Transactional
+    public AttendanceImportResultDto importRecords(Reader input, boolean csv) {
+        var startedAt = System.nanoTime();
+        var parser = new AttendanceImportParser(objectMapper, csv);
+        var changedDates = new HashSet<LocalDate>();
+
+        long imported;
+        try (var records = parser.parse(new BufferedReader(input))) {
+            imported = repository.copyAll(records.peek(record -> changedDates.add(record.visitDate())));
+        }
+        var elapsed = Duration.ofNanos(System.nanoTime() - startedAt);
+        metrics.recordImport(imported, elapsed);
+        if (!changedDates.isEmpty()) {
+            // Импорт может принести миллионы строк — подписчики перезагружают месяцы целиком
+            publishChanged(changedDates, List.of());
+        }
+
+        return AttendanceImportResultDto.builder()
+                .received(parser.received())
+                .imported(imported)
+                .rejected(parser.rejected())
+                .errors(parser.errors())
+                .durationMs(elapsed.toMillis())
+                .rowsPerSecond(imported * 1_000_000_000L / Math.max(elapsed.toNanos(), 1))
+                .build();
     }
 
     /**
      * Отметить присутствие (attended = true) по ID
+     *
+     * @return 1, если запись найдена и обновлена, иначе 0
      */
     @Transactional
-    public void markAttendanceTrue(Long recordId) {
-        repository.findById(recordId).ifPresent(rec -> {
-            rec.setAttended(true);
-            repository.save(rec);
-        });
+    public int markAttendanceTrue(Long recordId) {
+        return markAttendance(List.of(recordId), true);
     }
 
     /**
-     * Отменить присутствие (attended = true) по ID
+     * Отменить присутствие (attended = false) по ID
+     *
+     * @return 1, если запись найдена и обновлена, иначе 0
      */
     @Transactional
-    public void markAttendanceFalse(Long recordId) {
-        repository.findById(recordId).ifPresent(rec -> {
-            rec.setAttended(false);
-            repository.save(rec);
-        });
+    public int markAttendanceFalse(Long recordId) {
+        return markAttendance(List.of(recordId), false);
+    }
+
+    /**
+     * Выставить attended сразу для нескольких записей одним UPDATE
+     *
+     * @return количество обновлённых записей (отсутствующие ID не учитываются)
+     */
+    @Transactional
+    public int markAttendance(Collection<Long> recordIds, boolean attended) {
+        var updated = repository.updateAttended(recordIds, attended);
+        if (!updated.isEmpty()) {
+            publishChanged(updated.stream()
+                    .map(record -> RecordChangeDto.toggled(record.id(), record.version(), record.visitDate(), attended))
+                    .toList());
+        }
+        return updated.size();
+    }
+
+    /**
+     * Применить пакет операций create / toggle / delete в одной транзакции.
+     * Каждый вид операций выполняется одним запросом на весь пакет; toggle и delete
+     * с expectedVersion применяются, только если версия записи не изменилась.
+     * Операция с уже применённым ключом не выполняется повторно — возвращается сохранённый результат.
+     * Неприменённые операции (conflict, not_found, invalid) не мешают остальным, их ключи можно повторить.
+     */
+    @Transactional
+    public MutationBatchResultDto applyMutations(List<MutationOperationDto> operations) {
+        repository.purgeKeysCreatedBefore(Instant.now().minus(properties.mutations().idempotencyTtl()));
+
+        var results = new MutationResultDto[operations.size()];
+        Map<String, Integer> indexByKey = new LinkedHashMap<>();
+        var recordIds = new HashSet<Long>();
+        for (var i = 0; i < operations.size(); i++) {
+            var op = operations.get(i);
+            var error = validateMutation(op, indexByKey, recordIds);
+            if (error != null) {
+                results[i] = new MutationResultDto(op != null ? op.key() : null, MutationStatus.INVALID,
+                        null, null, false, error);
+            } else {
+                indexByKey.put(op.key(), i);
+            }
+        }
+
+        // Ключ, который сейчас применяет другая транзакция, ждёт её завершения здесь
+        var claimed = repository.claimKeys(indexByKey.keySet());
+        var replayedKeys = indexByKey.keySet().stream()
+                .filter(key -> !claimed.contains(key))
+                .toList();
+        for (var outcome : repository.findOutcomes(replayedKeys)) {
+            results[indexByKey.get(outcome.key())] = new MutationResultDto(outcome.key(), MutationStatus.APPLIED,
+                    outcome.recordId(), outcome.version(), true, null);
+        }
+
+        List<MutationOperationDto> creates = new ArrayList<>();
+        List<MutationOperationDto> toggles = new ArrayList<>();
+        List<MutationOperationDto> deletes = new ArrayList<>();
+        for (var key : claimed) {
+            var op = operations.get(indexByKey.get(key));
+            switch (op.type()) {
+                case CREATE -> creates.add(op);
+                case TOGGLE -> toggles.add(op);
+                case DELETE -> deletes.add(op);
+            }
+        }
+
+        List<RecordChangeDto> changes = new ArrayList<>();
+        var created = repository.insertAll(creates.stream()
+                .map(op -> new AttendanceRecordDto(null, people.idOf(op.personName()), op.personName(),
+                        op.visitDate(), op.attended() != null ? op.attended() : false, null))
+                .toList());
+        for (var i = 0; i < creates.size(); i++) {
+            var op = creates.get(i);
+            var record = created.get(i);
+            results[indexByKey.get(op.key())] = new MutationResultDto(op.key(),
+                    MutationStatus.APPLIED, record.id(), record.version(), false, null);
+            changes.add(RecordChangeDto.created(record.id(), record.version(), op.personName(), record.visitDate(),
+                    Boolean.TRUE.equals(op.attended())));
+        }
+        applyVersioned(toggles, repository.updateAttendedIfVersion(toggles), indexByKey, results, changes);
+        applyVersioned(deletes, repository.deleteIfVersion(deletes), indexByKey, results, changes);
+
+        // Результаты применённых операций сохраняются для повторов, остальные ключи освобождаются
+        List<MutationOutcome> outcomes = new ArrayList<>();
+        List<String> released = new ArrayList<>();
+        for (var key : claimed) {
+            var result = results[indexByKey.get(key)];
+            if (result.status() == MutationStatus.APPLIED) {
+                outcomes.add(new MutationOutcome(key, result.recordId(), result.version()));
+            } else {
+                released.add(key);
+            }
+        }
+        repository.saveOutcomes(outcomes);
+        repository.releaseKeys(released);
+
+        var applied = 0;
+        for (var i = 0; i < results.length; i++) {
+            if (results[i] == null) {
+                // Ключ занят, но результата нет: операция с этим ключом ещё не завершилась
+                results[i] = new MutationResultDto(operations.get(i).key(), MutationStatus.CONFLICT,
+                        null, null, false, "Операция с этим ключом ещё выполняется");
+            } else if (results[i].status() == MutationStatus.APPLIED) {
+                applied++;
+            }
+        }
+        if (!changes.isEmpty()) {
+            publishChanged(changes);
+        }
+        return new MutationBatchResultDto(applied, results.length - applied, List.of(results));
+    }
+
+    /**
+     * Проверяет операцию пакета
+     *
+     * @return причина отказа или null, если операция корректна
+     */
+    private static String validateMutation(MutationOperationDto op, Map<String, Integer> keys, Set<Long> recordIds) {
+        if (op == null) {
+            return "Пустая операция";
+        }
+        if (op.key() == null || op.key().isBlank() || op.key().length() > MAX_MUTATION_KEY_LENGTH) {
+            return "key обязателен, не длиннее " + MAX_MUTATION_KEY_LENGTH + " символов";
+        }
+        if (keys.containsKey(op.key())) {
+            return "key повторяется в пакете";
+        }
+        if (op.type() == null) {
+            return "type обязателен: create, toggle или delete";
+        }
+        return switch (op.type()) {
+            case CREATE -> op.personName() == null || op.personName().isBlank()
+                    || op.personName().length() > MAX_PERSON_NAME_LENGTH || op.visitDate() == null
+                    ? "create требует personName (до " + MAX_PERSON_NAME_LENGTH + " символов) и visitDate"
+                    : null;
+            case TOGGLE, DELETE -> {
+                if (op.recordId() == null || (op.type() == MutationType.TOGGLE && op.attended() == null)) {
+                    yield op.type() == MutationType.TOGGLE ? "toggle требует recordId и attended" : "delete требует recordId";
+                }
+                // Две операции над одной записью в пакете зависели бы от порядка выполнения
+                yield recordIds.add(op.recordId()) ? null : "recordId повторяется в пакете";
+            }
+        };
+    }
+
+    /**
+     * Раскладывает результат UPDATE/DELETE с проверкой версии по операциям:
+     * не затронутая запись — conflict (с текущей версией) или not_found
+     */
+    private void applyVersioned(List<MutationOperationDto> ops, List<RecordVersion> affected,
+                                Map<String, Integer> indexByKey, MutationResultDto[] results,
+                                List<RecordChangeDto> changes) {
+        if (ops.isEmpty()) {
+            return;
+        }
+        Map<Long, RecordVersion> affectedById = new HashMap<>();
+        for (var record : affected) {
+            affectedById.put(record.id(), record);
+        }
+        var missed = ops.stream()
+                .map(MutationOperationDto::recordId)
+                .filter(id -> !affectedById.containsKey(id))
+                .toList();
+        var currentVersions = repository.findVersions(missed);
+
+        for (var op : ops) {
+            var record = affectedById.get(op.recordId());
+            MutationResultDto result;
+            if (record != null) {
+                result = new MutationResultDto(op.key(), MutationStatus.APPLIED, record.id(), record.version(), false, null);
+                changes.add(op.type() == MutationType.TOGGLE
+                        ? RecordChangeDto.toggled(record.id(), record.version(), record.visitDate(), op.attended())
+                        : RecordChangeDto.deleted(record.id(), record.version(), record.visitDate()));
+            } else if (currentVersions.containsKey(op.recordId())) {
+                result = new MutationResultDto(op.key(), MutationStatus.CONFLICT, op.recordId(),
+                        currentVersions.get(op.recordId()), false, "Запись изменена, ожидалась версия " + op.expectedVersion());
+            } else {
+                result = new MutationResultDto(op.key(), MutationStatus.NOT_FOUND, op.recordId(), null, false,
+                        "Запись не найдена");
+            }
+            results[indexByKey.get(op.key())] = result;
+        }
     }
 
     /**
@@ -93,7 +378,10 @@ public class CalendarService {
      */
     @Transactional
     public void deleteAttendance(Long recordId) {
-        repository.deleteById(recordId);
+        repository.findById(recordId).ifPresent(rec -> {
+            repository.delete(rec);
+            publishChanged(List.of(RecordChangeDto.deleted(rec.getId(), rec.getVersion(), rec.getVisitDate())));
+        });
     }
 
     /**
@@ -101,10 +389,123 @@ public class CalendarService {
      */
     @Transactional(readOnly = true)
     public List<AttendanceRecordDto> getRecordsBetween(LocalDate start, LocalDate end) {
-        return repository.findByVisitDateBetween(start, end)
-                .stream()
+        var records = repository.findRowsByVisitDateBetween(start, end).stream()
                 .map(mapper::toDto)
                 .toList();
+        metrics.recordRows("records", start, end, records.size());
+        return records;
+    }
+
+    /**
+     * Передаёт записи за период [start..end] в consumer по мере чтения из БД
+     * (в порядке visit_date, id), не собирая период в память
+     */
+    @Transactional(readOnly = true)
+    public void streamRecordsBetween(LocalDate start, LocalDate end, Consumer<AttendanceRecordDto> consumer) {
+        var rows = new AtomicLong();
+        try (var records = repository.streamRowsByVisitDateBetween(start, end)) {
+            records.forEach(row -> {
+                rows.incrementAndGet();
+                consumer.accept(mapper.toDto(row));
+            });
+        }
+        metrics.recordRows("records-export", start, end, rows.get());
+    }
+
+    /**
+     * Все люди из справочника, по имени
+     */
+    @Transactional(readOnly = true)
+    public List<PersonDto> getPeople() {
+        return personRepository.findAllByOrderByNameAsc().stream()
+                .map(person -> new PersonDto(person.getId(), people.nameOf(person.getId())))
+                .toList();
+    }
+
+    /**
+     * Найти человека по ID
+     */
+    public Optional<PersonDto> findPerson(Long personId) {
+        return Optional.ofNullable(people.nameOf(personId))
+                .map(name -> new PersonDto(personId, name));
+    }
+
+    /**
+     * История записей одного человека за период [start..end]
+     */
+    @Transactional(readOnly = true)
+    public List<AttendanceRecordDto> getPersonHistory(Long personId, LocalDate start, LocalDate end) {
+        var records = repository.findRowsByPersonIdAndVisitDateBetween(personId, start, end).stream()
+                .map(mapper::toDto)
+                .toList();
+        metrics.recordRows("person-history", start, end, records.size());
+        return records;
+    }
+
+    /**
+     * Доля посещений и заработок по одному человеку за период [start..end]
+     */
+    @Transactional(readOnly = true)
+    public PersonStatsDto getPersonStats(PersonDto person, LocalDate start, LocalDate end) {
+        var totals = repository.aggregateByPersonBetween(person.id(), start, end);
+        return PersonStatsDto.builder()
+                .personId(person.id())
+                .name(person.name())
+                .start(start)
+                .end(end)
+                .totalCount(totals.getTotalCount())
+                .attendedCount(totals.getAttendedCount())
+                .attendanceRate(rateOf(totals.getAttendedCount(), totals.getTotalCount()))
+                .earnings(totals.getEarnings())
+                .build();
+    }
+
+    /**
+     * Отчёт за период [from..to] одним агрегирующим запросом: по дням, неделям
+     * и месяцам — из daily_rollups, по людям — из attendance_records.
+     * Неделя или месяц на краю периода учитывают только дни внутри него.
+     */
+    @Transactional(readOnly = true)
+    public ReportDto getReport(LocalDate from, LocalDate to, ReportGroupBy groupBy) {
+        var rows = groupBy == ReportGroupBy.PERSON
+                ? repository.sumByPerson(from, to)
+                : repository.sumByPeriod(groupBy.value(), from, to);
+        metrics.recordRows("report-" + groupBy.value(), from, to, rows.size());
+
+        long totalCount = 0;
+        long attendedCount = 0;
+        long earnings = 0;
+        List<ReportBucketDto> buckets = new ArrayList<>(rows.size());
+        for (var row : rows) {
+            totalCount += row.totalCount();
+            attendedCount += row.attendedCount();
+            earnings += row.earnings();
+            buckets.add(new ReportBucketDto(
+                    row.periodStart(),
+                    row.personId(),
+                    row.personId() != null ? people.nameOf(row.personId()) : null,
+                    row.totalCount(),
+                    row.attendedCount(),
+                    rateOf(row.attendedCount(), row.totalCount()),
+                    row.earnings()
+            ));
+        }
+
+        return ReportDto.builder()
+                .from(from)
+                .to(to)
+                .groupBy(groupBy)
+                .buckets(buckets)
+                .totals(new ReportBucketDto(null, null, null, totalCount, attendedCount,
+                        rateOf(attendedCount, totalCount), earnings))
+                .build();
+    }
+
+    /**
+     * Доля посещений от записей (0..1), 0 если записей нет
+     */
+    private static double rateOf(long attendedCount, long totalCount) {
+        return totalCount == 0 ? 0.0 : (double) attendedCount / totalCount;
     }
 
     /**
@@ -112,14 +513,21 @@ public class CalendarService {
      */
     @Transactional(readOnly = true)
     public int calculateTotalCost(LocalDate start, LocalDate end) {
-        var list = getRecordsBetween(start, end);
-        var sum = 0;
-        for (var record : list) {
-            if (Boolean.TRUE.equals(record.attended())) {
-                sum += COST_PER_ATTENDANCE;
-            }
-        }
-        return sum;
+        return Math.toIntExact(getTotalsBetween(start, end).totalCost());
+    }
+
+    /**
+     * Посчитать итоги за период [start..end] одним агрегирующим запросом
+     */
+    @Transactional(readOnly = true)
+    public AttendanceTotalsDto getTotalsBetween(LocalDate start, LocalDate end) {
+        // Не больше строки на день из daily_rollups, независимо от числа записей
+        var totals = rollupRepository.aggregateBetween(start, end);
+        return new AttendanceTotalsDto(
+                totals.getTotalCount(),
+                totals.getAttendedCount(),
+                totals.getEarnings()
+        );
     }
 
     /**
@@ -127,24 +535,49 @@ public class CalendarService {
      */
     @Transactional(readOnly = true)
     public List<DaySummaryDto> getDailySummaries(LocalDate start, LocalDate end) {
-        // Получаем записи за период [start; end]
-        var records = getRecordsBetween(start, end);
-
-        // Группируем записи по дате и фильтруем только attended = true
-        var dailyRecords = records.stream()
-                .collect(Collectors.groupingBy(AttendanceRecordDto::visitDate));
-
-        // Собираем результаты: для каждого дня считаем количество и заработок
-        List<DaySummaryDto> result = new ArrayList<>();
-        for (Map.Entry<LocalDate, List<AttendanceRecordDto>> entry : dailyRecords.entrySet()) {
-            var all = entry.getValue().size();
-            var attendedCount = (int) entry.getValue().stream()
-                    .filter(r -> Boolean.TRUE.equals(r.attended()))
-                    .count();
-            var earnings = attendedCount * COST_PER_ATTENDANCE;
-            result.add(new DaySummaryDto(entry.getKey(), all, attendedCount, earnings));
-        }
-        result.sort(Comparator.comparing(DaySummaryDto::date));
-        return result;
+        // Итоги по дням поддерживаются в daily_rollups при каждом изменении
+        var summaries = rollupRepository.findSummaries(start, end);
+        metrics.recordRows("daily-summaries", start, end, summaries.size());
+        return summaries;
+    }
+
+    /**
+     * Передаёт сводку по дням в consumer по мере чтения из БД,
+     * не собирая весь период в память
+     */
+    @Transactional(readOnly = true)
+    public void streamDailySummaries(LocalDate start, LocalDate end, Consumer<DaySummaryDto> consumer) {
+        var rows = new AtomicLong();
+        try (var summaries = rollupRepository.streamSummaries(start, end)) {
+            summaries.forEach(summary -> {
+                rows.incrementAndGet();
+                consumer.accept(summary);
+            });
+        }
+        metrics.recordRows("daily-summaries-stream", start, end, rows.get());
+    }
+
+    /**
+     * То же, что publishChanged(dates, records), для изменений отдельных записей
+     */
+    private void publishChanged(List<RecordChangeDto> records) {
+        publishChanged(records.stream().map(RecordChangeDto::visitDate).toList(), records);
+    }
+
+    /**
+     * Пересчитывает итоги изменённых дней в daily_rollups (в той же транзакции)
+     * и оповещает подписчиков (кэш месяцев, поток /events) о затронутых месяцах и записях
+     */
+    private void publishChanged(Collection<LocalDate> dates, List<RecordChangeDto> records) {
+        // Изменения сущностей (save/delete) должны попасть в БД до пересчёта итогов SQL-запросом
+        repository.flush();
+        rollupRepository.refresh(dates);
+
+        // Сетка месяца показывает и крайние дни соседних месяцев — они тоже изменились
+        var months = dates.stream()
+                .distinct()
+                .flatMap(date -> CalendarGridTemplate.monthsShowing(date).stream())
+                .collect(Collectors.toUnmodifiableSet());
+        eventPublisher.publishEvent(new AttendanceChangedEvent(months, records));
     }
 }
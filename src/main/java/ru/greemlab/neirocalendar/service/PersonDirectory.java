@@ -0,0 +1,93 @@
+package ru.greemlab.neirocalendar.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.greemlab.neirocalendar.repository.PersonRepository;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Словарь id -> имя для таблицы people, общий для всего приложения.
+ * Имя каждого человека хранится одним экземпляром String, и все DTO ссылаются на него,
+ * а запись по уже известному имени не требует обращения к people.
+ * Имена в people не меняются, поэтому словарь только пополняется.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class PersonDirectory {
+
+    private final PersonRepository repository;
+
+    private final Map<Long, String> namesById = new ConcurrentHashMap<>();
+    private final Map<String, Long> idsByName = new ConcurrentHashMap<>();
+
+    /**
+     * Загружает весь справочник при старте, чтобы первые запросы не шли в people по одному id
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void preload() {
+        repository.findAll().forEach(person -> remember(person.getId(), person.getName()));
+        log.debug("Preloaded {} people", namesById.size());
+    }
+
+    /**
+     * Имя человека по id (при промахе — из БД)
+     *
+     * @return имя или null, если такого id нет
+     */
+    public String nameOf(Long personId) {
+        var name = namesById.get(personId);
+        if (name != null) {
+            return name;
+        }
+        return repository.findById(personId)
+                .map(person -> remember(person.getId(), person.getName()))
+                .orElse(null);
+    }
+
+    /**
+     * Id человека по имени. Новое имя добавляется в people в текущей транзакции
+     * и попадает в словарь только после её фиксации, чтобы откат не оставил в нём висячий id.
+     */
+    public long idOf(String name) {
+        var id = idsByName.get(name);
+        if (id != null) {
+            return id;
+        }
+        long created = repository.upsertByName(name);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    remember(created, name);
+                }
+            });
+        } else {
+            remember(created, name);
+        }
+        return created;
+    }
+
+    /**
+     * Количество известных имён (для диагностики)
+     */
+    public int size() {
+        return namesById.size();
+    }
+
+    /**
+     * Кладёт пару в словарь и возвращает канонический экземпляр имени
+     */
+    String remember(long id, String name) {
+        var canonical = namesById.computeIfAbsent(id, key -> name);
+        idsByName.putIfAbsent(canonical, id);
+        return canonical;
+    }
+}
@@ -0,0 +1,75 @@
+package ru.greemlab.neirocalendar.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import ru.greemlab.neirocalendar.domain.dto.TariffDto;
+import ru.greemlab.neirocalendar.domain.entity.Tariff;
+import ru.greemlab.neirocalendar.domain.event.AttendanceChangedEvent;
+import ru.greemlab.neirocalendar.repository.DailyRollupRepository;
+import ru.greemlab.neirocalendar.repository.TariffRepository;
+
+import java.time.YearMonth;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Тарифы на посещения. Цена записи — последний тариф с effectiveFrom не позже даты посещения:
+ * персональный, если есть, иначе общий (SQL-функция attendance_price).
+ * Заработок по дням хранится в daily_rollups, поэтому изменение тарифа пересчитывает
+ * итоги всех дней, на которые он влияет.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class PricingService {
+
+    private final TariffRepository tariffRepository;
+    private final DailyRollupRepository rollupRepository;
+    private final ApplicationEventPublisher eventPublisher;
+
+    /**
+     * Все тарифы: сначала общие, затем персональные, по дате начала действия
+     */
+    @Transactional(readOnly = true)
+    public List<TariffDto> getTariffs() {
+        return tariffRepository.findAllOrdered().stream()
+                .map(PricingService::toDto)
+                .toList();
+    }
+
+    /**
+     * Создать тариф или изменить цену тарифа с теми же (personId, effectiveFrom).
+     * Итоги дней начиная с effectiveFrom пересчитываются в той же транзакции.
+     */
+    @Transactional
+    public TariffDto saveTariff(TariffDto dto) {
+        var id = tariffRepository.upsert(dto.personId(), dto.effectiveFrom(), dto.price());
+        rollupRepository.refreshFrom(dto.effectiveFrom());
+        log.debug("Tariff saved: id={}, personId={}, from={}, price={}",
+                id, dto.personId(), dto.effectiveFrom(), dto.price());
+
+        // Итоги месяцев в кэше устарели начиная с месяца effectiveFrom
+        rollupRepository.findLastDate()
+                .filter(last -> !last.isBefore(dto.effectiveFrom()))
+                .ifPresent(last -> eventPublisher.publishEvent(
+                        new AttendanceChangedEvent(monthsBetween(YearMonth.from(dto.effectiveFrom()), YearMonth.from(last)), List.of())));
+
+        return new TariffDto(id, dto.personId(), dto.effectiveFrom(), dto.price());
+    }
+
+    private static Set<YearMonth> monthsBetween(YearMonth first, YearMonth last) {
+        Set<YearMonth> months = new HashSet<>();
+        for (var month = first; !month.isAfter(last); month = month.plusMonths(1)) {
+            months.add(month);
+        }
+        return Set.copyOf(months);
+    }
+
+    private static TariffDto toDto(Tariff tariff) {
+        return new TariffDto(tariff.getId(), tariff.getPersonId(), tariff.getEffectiveFrom(), tariff.getPrice());
+    }
+}
@@ -0,0 +1,9 @@
+--liquibase formatted sql
+
+--changeset Greem4:2
+UPDATE attendance_records SET attended = FALSE WHERE attended IS NULL;
+ALTER TABLE attendance_records ALTER COLUMN attended SET NOT NULL;
+
+--changeset Greem4:3
+CREATE INDEX idx_attendance_records_visit_date_id
+    ON attendance_records (visit_date, id) INCLUDE (person_name, attended);
@@ -0,0 +1,33 @@
+--liquibase formatted sql
+
+--changeset Greem4:4
+CREATE TABLE people
+(
+    id   BIGSERIAL PRIMARY KEY,
+    name VARCHAR(255) NOT NULL,
+    CONSTRAINT uq_people_name UNIQUE (name)
+);
+
+--changeset Greem4:5
+INSERT INTO people (name)
+SELECT DISTINCT person_name FROM attendance_records;
+
+ALTER TABLE attendance_records ADD COLUMN person_id BIGINT;
+
+UPDATE attendance_records r SET person_id = p.id FROM people p WHERE p.name = r.person_name;
+
+ALTER TABLE attendance_records
+    ALTER COLUMN person_id SET NOT NULL,
+    ADD CONSTRAINT fk_attendance_records_person FOREIGN KEY (person_id) REFERENCES people (id);
+
+--changeset Greem4:6
+-- Покрывающий индекс месяца теперь несёт person_id вместо имени
+DROP INDEX idx_attendance_records_visit_date_id;
+CREATE INDEX idx_attendance_records_visit_date_id
+    ON attendance_records (visit_date, id) INCLUDE (person_id, attended);
+
+-- Выборки по одному человеку: история в порядке (visit_date, id) и итоги без обращения к таблице
+CREATE INDEX idx_attendance_records_person_id_visit_date
+    ON attendance_records (person_id, visit_date, id) INCLUDE (attended);
+
+ALTER TABLE attendance_records DROP COLUMN person_name;
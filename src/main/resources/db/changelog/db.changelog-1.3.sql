@@ -0,0 +1,53 @@
+--liquibase formatted sql
+
+--changeset Greem4:7
+-- Тарифы: цена посещения действует с effective_from до следующего тарифа.
+-- person_id IS NULL — общий тариф, иначе персональный (имеет приоритет)
+CREATE TABLE tariffs
+(
+    id             BIGSERIAL PRIMARY KEY,
+    person_id      BIGINT REFERENCES people (id),
+    effective_from DATE    NOT NULL,
+    price          INTEGER NOT NULL CHECK (price >= 0),
+    CONSTRAINT uq_tariffs_person_id_effective_from UNIQUE NULLS NOT DISTINCT (person_id, effective_from)
+);
+
+-- Прежняя константа COST_PER_ATTENDANCE
+INSERT INTO tariffs (person_id, effective_from, price) VALUES (NULL, DATE '1970-01-01', 1250);
+
+--changeset Greem4:8 splitStatements:false
+CREATE FUNCTION attendance_price(p_person_id BIGINT, p_visit_date DATE) RETURNS INTEGER
+    LANGUAGE sql
+    STABLE
+AS
+$$
+SELECT t.price
+FROM tariffs t
+WHERE (t.person_id = p_person_id OR t.person_id IS NULL)
+  AND t.effective_from <= p_visit_date
+ORDER BY t.person_id NULLS LAST, t.effective_from DESC
+LIMIT 1
+$$;
+
+--changeset Greem4:9
+-- Итоги по дням; пересчитываются в транзакции каждого изменения attendance_records
+CREATE TABLE daily_rollups
+(
+    visit_date     DATE PRIMARY KEY,
+    total_count    BIGINT NOT NULL,
+    attended_count BIGINT NOT NULL,
+    earnings       BIGINT NOT NULL
+);
+
+INSERT INTO daily_rollups (visit_date, total_count, attended_count, earnings)
+SELECT g.visit_date,
+       SUM(g.total_count),
+       SUM(g.attended_count),
+       COALESCE(SUM(g.attended_count * attendance_price(g.person_id, g.visit_date)), 0)
+FROM (SELECT r.visit_date,
+             r.person_id,
+             COUNT(*)                           AS total_count,
+             COUNT(*) FILTER (WHERE r.attended) AS attended_count
+      FROM attendance_records r
+      GROUP BY r.visit_date, r.person_id) g
+GROUP BY g.visit_date;
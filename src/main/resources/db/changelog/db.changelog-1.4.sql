@@ -0,0 +1,27 @@
+--liquibase formatted sql
+
+--changeset Greem4:10
+-- Версия для оптимистической блокировки: каждое изменение записи увеличивает её на 1
+ALTER TABLE attendance_records ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
+
+-- version читается вместе с записями — добавляем её в покрывающие индексы
+DROP INDEX idx_attendance_records_visit_date_id;
+CREATE INDEX idx_attendance_records_visit_date_id
+    ON attendance_records (visit_date, id) INCLUDE (person_id, attended, version);
+
+DROP INDEX idx_attendance_records_person_id_visit_date;
+CREATE INDEX idx_attendance_records_person_id_visit_date
+    ON attendance_records (person_id, visit_date, id) INCLUDE (attended, version);
+
+--changeset Greem4:11
+-- Ключи идемпотентности пакетных изменений (/mutations) и их результаты.
+-- Повтор операции с тем же ключом возвращает сохранённый результат, не применяя её снова
+CREATE TABLE attendance_mutations
+(
+    idempotency_key VARCHAR(64) PRIMARY KEY,
+    record_id       BIGINT,
+    version         BIGINT,
+    created_at      TIMESTAMPTZ NOT NULL DEFAULT now()
+);
+
+CREATE INDEX idx_attendance_mutations_created_at ON attendance_mutations (created_at);
@@ -0,0 +1,10 @@
+--liquibase formatted sql
+
+--changeset Greem4:12
+-- Контрольные суммы применённых changelog-ов (профиль fast-start): если файлы миграций
+-- не менялись с последнего прогона, Liquibase при старте не запускается
+CREATE TABLE changelog_state
+(
+    checksum   VARCHAR(64) PRIMARY KEY,
+    applied_at TIMESTAMPTZ NOT NULL DEFAULT now()
+);
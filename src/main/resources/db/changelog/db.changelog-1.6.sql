@@ -0,0 +1,33 @@
+--liquibase formatted sql
+
+--changeset Greem4:13
+-- Общий тариф действовал с 1970-01-01, и посещения до 1970 года считались по цене 0.
+-- Начальный общий тариф переносится на 0001-01-01 (начало истории по умолчанию в API),
+-- если раньше него общих тарифов нет
+UPDATE tariffs
+SET effective_from = DATE '0001-01-01'
+WHERE person_id IS NULL
+  AND effective_from = DATE '1970-01-01'
+  AND NOT EXISTS (SELECT 1
+                  FROM tariffs t
+                  WHERE t.person_id IS NULL
+                    AND t.effective_from < DATE '1970-01-01');
+
+-- Пересчёт итогов дней до 1970 года по перенесённому тарифу
+INSERT INTO daily_rollups (visit_date, total_count, attended_count, earnings)
+SELECT g.visit_date,
+       SUM(g.total_count),
+       SUM(g.attended_count),
+       COALESCE(SUM(g.attended_count * attendance_price(g.person_id, g.visit_date)), 0)
+FROM (SELECT r.visit_date,
+             r.person_id,
+             COUNT(*)                           AS total_count,
+             COUNT(*) FILTER (WHERE r.attended) AS attended_count
+      FROM attendance_records r
+      WHERE r.visit_date < DATE '1970-01-01'
+      GROUP BY r.visit_date, r.person_id) g
+GROUP BY g.visit_date
+ON CONFLICT (visit_date) DO UPDATE
+    SET total_count    = EXCLUDED.total_count,
+        attended_count = EXCLUDED.attended_count,
+        earnings       = EXCLUDED.earnings;
@@ -0,0 +1,129 @@
+/*
+ * Живой режим страницы календаря.
+ * Формы отправляются fetch-ем без перехода по redirect:/calendar, а по событиям потока
+ * /api/v1/calendar/events — своим и чужим одинаково — заново загружаются только изменённые ячейки.
+ * Без JavaScript или EventSource страница работает как раньше: POST и полная перезагрузка.
+ */
+(function () {
+    'use strict';
+
+    var root = document.querySelector('.container[data-events-url]');
+    if (!root || !window.EventSource || !window.fetch) {
+        return;
+    }
+
+    var shownMonth = root.dataset.year + '-' + String(root.dataset.month).padStart(2, '0');
+    // В заголовках ETag в кавычках, как его отдаёт сервер
+    var etag = '"' + root.dataset.etag + '"';
+    var connected = false;
+    var lostConnection = false;
+    var summaryTimer = null;
+
+    function cellOf(date) {
+        return root.querySelector('td[data-date="' + date + '"]');
+    }
+
+    /* Ячейку дня перерисовывает сервер (/calendar/day) — разметка та же, что на странице */
+    function refreshCell(date) {
+        var url = root.dataset.dayUrl + '?date=' + date + '&year=' + root.dataset.year + '&month=' + root.dataset.month;
+        fetch(url).then(function (response) {
+            if (!response.ok) {
+                return;
+            }
+            return response.text().then(function (html) {
+                // Ячейку могли заменить, пока шёл запрос, — ищем заново
+                var cell = cellOf(date);
+                if (cell) {
+                    cell.outerHTML = html;
+                }
+            });
+        });
+    }
+
+    /* Итоги месяца — из кэшируемого REST-ответа, не чаще раза в 300 мс */
+    function refreshSummary() {
+        clearTimeout(summaryTimer);
+        summaryTimer = setTimeout(function () {
+            var url = root.dataset.monthUrl + '?compact=true&year=' + root.dataset.year + '&month=' + root.dataset.month;
+            fetch(url).then(function (response) {
+                if (!response.ok) {
+                    return;
+                }
+                etag = response.headers.get('ETag') || etag;
+                return response.json().then(function (data) {
+                    document.getElementById('attended-count').textContent = data.attendedCount;
+                    document.getElementById('total-cost').textContent = data.totalCost;
+                });
+            });
+        }, 300);
+    }
+
+    /* После обрыва связи события могли потеряться: перезагрузить страницу, если месяц изменился */
+    function checkMissedChanges() {
+        var url = root.dataset.monthUrl + '?compact=true&year=' + root.dataset.year + '&month=' + root.dataset.month;
+        fetch(url, {headers: {'If-None-Match': etag}}).then(function (response) {
+            if (response.status !== 304) {
+                location.reload();
+            }
+        });
+    }
+
+    var events = new EventSource(root.dataset.eventsUrl);
+    events.addEventListener('open', function () {
+        connected = true;
+        if (lostConnection) {
+            lostConnection = false;
+            checkMissedChanges();
+        }
+    });
+    events.addEventListener('error', function () {
+        connected = false;
+        lostConnection = true;
+    });
+    events.addEventListener('reset', function () {
+        location.reload();
+    });
+    events.addEventListener('change', function (event) {
+        var change = JSON.parse(event.data);
+        if (change.months.indexOf(shownMonth) < 0) {
+            return;
+        }
+        if (change.records.length === 0) {
+            // Массовое изменение (импорт, тариф) — дешевле перерисовать месяц целиком
+            location.reload();
+            return;
+        }
+        // Ячейки нет, если день не показывается в сетке (не учебный день или другой месяц)
+        var dates = {};
+        change.records.forEach(function (record) {
+            if (cellOf(record.visitDate)) {
+                dates[record.visitDate] = true;
+            }
+        });
+        Object.keys(dates).forEach(refreshCell);
+        refreshSummary();
+    });
+
+    /* Формы: POST без перехода, результат придёт событием; без потока — прежняя перезагрузка */
+    root.addEventListener('submit', function (event) {
+        var form = event.target;
+        // Выбор месяца (GET) — обычный переход
+        if (!connected || form.method !== 'post') {
+            return;
+        }
+        event.preventDefault();
+        fetch(form.action, {
+            method: 'POST',
+            body: new URLSearchParams(new FormData(form)),
+            redirect: 'manual'
+        }).then(function (response) {
+            if (response.type !== 'opaqueredirect' && !response.ok) {
+                location.reload();
+            } else if (form.elements.personName) {
+                form.reset();
+            }
+        }, function () {
+            location.reload();
+        });
+    });
+})();
@@ -0,0 +1,84 @@
+package ru.greemlab.neirocalendar.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.Ordered;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Read-your-writes: readOnly-чтение после пишущей транзакции идёт в основную БД, в том числе из
+ * afterCommit-обработчиков с HIGHEST_PRECEDENCE — как сброс кэша месяца в CalendarMonthCache,
+ * после которого соседний запрос сразу перестраивает месяц.
+ * Пулы не открывают соединений: проверяется только выбор маршрута.
+ */
+class ReplicaRoutingDataSourceTest {
+
+    private final ReplicaRoutingDataSource dataSource = new ReplicaRoutingDataSource(
+            new HikariDataSource(), new HikariDataSource(), Duration.ofSeconds(5), new SimpleMeterRegistry());
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+        dataSource.close();
+    }
+
+    @Test
+    void readsReplicaWithoutRecentWrites() throws Exception {
+        assertThat(readOnlyRouteInAnotherThread()).isEqualTo("replica");
+    }
+
+    @Test
+    void firstAfterCommitHandlerAlreadySeesStickyWindow() {
+        var routeSeenByCache = new AtomicReference<String>();
+        TransactionSynchronizationManager.initSynchronization();
+        // Пишущая транзакция берёт соединение
+        assertThat(dataSource.route()).isEqualTo("primary");
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public int getOrder() {
+                return Ordered.HIGHEST_PRECEDENCE;
+            }
+
+            @Override
+            public void afterCommit() {
+                // Кэш сброшен — параллельный запрос перестраивает месяц
+                try {
+                    routeSeenByCache.set(readOnlyRouteInAnotherThread());
+                } catch (Exception e) {
+                    throw new IllegalStateException(e);
+                }
+            }
+        });
+
+        // Порядок вызовов AbstractPlatformTransactionManager.processCommit
+        TransactionSynchronizationUtils.triggerBeforeCommit(false);
+        TransactionSynchronizationUtils.triggerBeforeCompletion();
+        TransactionSynchronizationUtils.triggerAfterCommit();
+
+        assertThat(routeSeenByCache.get()).isEqualTo("primary");
+    }
+
+    private String readOnlyRouteInAnotherThread() throws Exception {
+        return CompletableFuture.supplyAsync(() -> {
+            TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+            try {
+                return dataSource.route();
+            } finally {
+                TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+            }
+        }).get();
+    }
+}
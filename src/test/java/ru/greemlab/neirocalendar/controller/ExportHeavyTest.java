@@ -0,0 +1,97 @@
+package ru.greemlab.neirocalendar.controller;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.sql.Date;
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Выгрузка /export на 5 млн записей в JVM с ограниченной кучей (-Xmx128m, задача heavyTest):
+ * ответ должен идти потоком — собранный в памяти период закончился бы OutOfMemoryError.
+ * Тест долгий и заполняет БД, поэтому в test не входит. Запуск: ./gradlew heavyTest
+ * (нужна БД: DB_URL, DB_USER, DB_PASS). Записи кладутся в 1900-е годы и удаляются после теста.
+ */
+@Tag("heavy")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class ExportHeavyTest {
+
+    private static final int ROWS = 5_000_000;
+    private static final int DAYS = 1_000;
+    private static final LocalDate FROM = LocalDate.of(1900, 1, 1);
+    private static final LocalDate TO = FROM.plusDays(DAYS - 1);
+    private static final String PERSON = "Heavy export";
+
+    private static final long MAX_HEAP = 128L * 1024 * 1024;
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void seed() {
+        cleanUp();
+        jdbcTemplate.update("INSERT INTO people (name) VALUES (?)", PERSON);
+        // ROWS / DAYS записей на день, attended через одну
+        jdbcTemplate.update("""
+                        INSERT INTO attendance_records (visit_date, attended, person_id, version)
+                        SELECT ?::date + (g % ?), g % 2 = 0, p.id, 0
+                        FROM generate_series(0, ? - 1) g, people p
+                        WHERE p.name = ?
+                        """,
+                Date.valueOf(FROM), DAYS, ROWS, PERSON);
+    }
+
+    @AfterEach
+    void cleanUp() {
+        jdbcTemplate.update("DELETE FROM attendance_records WHERE visit_date BETWEEN ? AND ?",
+                Date.valueOf(FROM), Date.valueOf(TO));
+        jdbcTemplate.update("DELETE FROM people WHERE name = ?", PERSON);
+    }
+
+    @Test
+    void streamsFiveMillionRowsWithinCappedHeap() throws Exception {
+        assertThat(Runtime.getRuntime().maxMemory())
+                .as("куча не ограничена — запускать через ./gradlew heavyTest")
+                .isLessThanOrEqualTo(MAX_HEAP);
+
+        var request = HttpRequest.newBuilder(URI.create("http://localhost:%d/api/v1/calendar/export?start=%s&end=%s&format=csv"
+                .formatted(port, FROM, TO))).build();
+        var response = HttpClient.newHttpClient().send(request, HttpResponse.BodyHandlers.ofInputStream());
+
+        assertThat(response.statusCode()).isEqualTo(200);
+        // Заголовок CSV + строка на запись; тело читается потоком, как его читал бы клиент
+        try (var body = response.body()) {
+            assertThat(countLines(body)).isEqualTo(ROWS + 1);
+        }
+    }
+
+    private static long countLines(InputStream in) throws IOException {
+        var buffer = new byte[64 * 1024];
+        var lines = 0L;
+        for (var read = in.read(buffer); read != -1; read = in.read(buffer)) {
+            for (var i = 0; i < read; i++) {
+                if (buffer[i] == '\n') {
+                    lines++;
+                }
+            }
+        }
+        return lines;
+    }
+}
@@ -0,0 +1,181 @@
+package ru.greemlab.neirocalendar.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import ru.greemlab.neirocalendar.domain.dto.AttendanceRecordDto;
+import ru.greemlab.neirocalendar.domain.dto.ImportErrorDto;
+
+import java.io.BufferedReader;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Разбор файла импорта: заголовок CSV, проверка строк, номера строк в отчёте, предел отчёта,
+ * круговой путь выгрузка /export → импорт.
+ */
+class AttendanceImportParserTest {
+
+    private static final LocalDate DAY = LocalDate.of(2024, 3, 15);
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+
+    @Test
+    void resolvesReorderedAndExtraColumnsFromHeader() {
+        var parser = csvParser();
+
+        var records = parse(parser, """
+                attended,id,Visit_Date,note,PERSON_NAME
+                1,7,2024-03-15,x,Анна
+                false,8,2024-03-16,,Борис
+                """);
+
+        assertThat(records).containsExactly(
+                record("Анна", DAY, true),
+                record("Борис", DAY.plusDays(1), false));
+        assertThat(parser.received()).isEqualTo(2);
+        assertThat(parser.rejected()).isZero();
+    }
+
+    @Test
+    void attendedColumnIsOptional() {
+        var records = parse(csvParser(), """
+                person_name,visit_date
+                Анна,2024-03-15
+                """);
+
+        assertThat(records).containsExactly(record("Анна", DAY, false));
+    }
+
+    @Test
+    void rejectsHeaderWithoutRequiredColumns() {
+        assertThatThrownBy(() -> csvParser().parse(reader("person_name,attended\nАнна,true\n")))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> csvParser().parse(reader("\n\n")))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void skipsBlankLinesAndKeepsFileLineNumbers() {
+        var parser = csvParser();
+
+        var records = parse(parser, """
+
+                person_name,visit_date,attended
+
+                Анна,2024-03-15,true
+                \s
+                Борис,15.03.2024,true
+                """);
+
+        assertThat(records).containsExactly(record("Анна", DAY, true));
+        assertThat(parser.received()).isEqualTo(2);
+        assertThat(parser.errors()).extracting(ImportErrorDto::line).containsExactly(6L);
+    }
+
+    @Test
+    void reportsEachInvalidRowWithItsLine() {
+        var parser = csvParser();
+
+        var records = parse(parser, """
+                person_name,visit_date,attended
+                Анна,2024-02-30,true
+                Анна,2024-03-15,yes
+                %s,2024-03-15,true
+                Ан\0на,2024-03-15,true
+                ,2024-03-15,true
+                Анна
+                "Анна,2024-03-15,true
+                Анна,2024-03-15,true
+                """.formatted("А".repeat(256)));
+
+        assertThat(records).isEmpty();
+        assertThat(parser.received()).isEqualTo(7);
+        assertThat(parser.rejected()).isEqualTo(7);
+        // Незакрытая кавычка забирает строки до конца файла в одну запись
+        assertThat(parser.errors()).extracting(ImportErrorDto::line)
+                .containsExactly(2L, 3L, 4L, 5L, 6L, 7L, 8L);
+        assertThat(parser.errors()).extracting(ImportErrorDto::message)
+                .allSatisfy(message -> assertThat(message).isNotBlank());
+    }
+
+    @Test
+    void acceptsNameOfMaxLength() {
+        var name = "А".repeat(255);
+
+        var records = parse(csvParser(), "person_name,visit_date\n" + name + ",2024-03-15\n");
+
+        assertThat(records).containsExactly(record(name, DAY, false));
+    }
+
+    @Test
+    void capsReportedErrorsButCountsAll() {
+        var parser = csvParser();
+        var file = new StringBuilder("person_name,visit_date\n");
+        for (var i = 0; i < 150; i++) {
+            file.append("Анна,bad\n");
+        }
+
+        assertThat(parse(parser, file.toString())).isEmpty();
+        assertThat(parser.rejected()).isEqualTo(150);
+        assertThat(parser.errors()).hasSize(AttendanceImportParser.MAX_REPORTED_ERRORS);
+        assertThat(parser.errors().getLast().line()).isEqualTo(AttendanceImportParser.MAX_REPORTED_ERRORS + 1);
+    }
+
+    @Test
+    void parsesNdjsonLines() {
+        var parser = new AttendanceImportParser(objectMapper, false);
+
+        var records = parse(parser, """
+                {"personName": "Анна", "visitDate": "2024-03-15", "attended": true}
+
+                {"personName": "Борис", "visitDate": "2024-03-15"
+                ["Анна"]
+                {"personName": "Борис", "visitDate": "2024-03-16", "attended": "1"}
+                """);
+
+        assertThat(records).containsExactly(
+                record("Анна", DAY, true),
+                record("Борис", DAY.plusDays(1), true));
+        assertThat(parser.errors()).extracting(ImportErrorDto::line).containsExactly(3L, 4L);
+    }
+
+    @Test
+    void importsExportedNamesWithCommaQuoteAndLineBreak() throws Exception {
+        var names = List.of("Иванов, Иван", "Анна \"Аня\"", "Первая строка\nвторая строка", "Борис");
+        var export = new StringWriter();
+        export.write(AttendanceCsv.HEADER + "\n");
+        for (var i = 0; i < names.size(); i++) {
+            AttendanceCsv.writeRow(export, new AttendanceRecordDto((long) i, 1L, names.get(i), DAY, i % 2 == 0, 0L));
+        }
+        export.write(",2024-03-15\n");
+        var parser = csvParser();
+
+        var records = parse(parser, export.toString());
+
+        assertThat(records).extracting(AttendanceRecordDto::personName).containsExactlyElementsOf(names);
+        assertThat(records).extracting(AttendanceRecordDto::attended).containsExactly(true, false, true, false);
+        // Имя с переводом строки занимает строки 4-5, следующая запись — строка 6
+        assertThat(parser.errors()).extracting(ImportErrorDto::line).containsExactly(7L);
+    }
+
+    private AttendanceImportParser csvParser() {
+        return new AttendanceImportParser(objectMapper, true);
+    }
+
+    private static List<AttendanceRecordDto> parse(AttendanceImportParser parser, String file) {
+        return parser.parse(reader(file)).toList();
+    }
+
+    private static BufferedReader reader(String file) {
+        return new BufferedReader(new StringReader(file));
+    }
+
+    private static AttendanceRecordDto record(String name, LocalDate date, boolean attended) {
+        return new AttendanceRecordDto(null, null, name, date, attended, null);
+    }
+}
@@ -0,0 +1,223 @@
+package ru.greemlab.neirocalendar.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import ru.greemlab.neirocalendar.domain.dto.CalendarChangeDto;
+import ru.greemlab.neirocalendar.domain.dto.RecordChangeDto;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Рассылка изменений сотням подписчиков: порядок, задержка, ограниченный буфер медленных клиентов.
+ */
+class CalendarEventBusTest {
+
+    private static final int SUBSCRIBERS = 500;
+    private static final int MESSAGES = 50;
+    private static final int BUFFER_SIZE = 64;
+
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+    private final CalendarEventBus bus = new CalendarEventBus(BUFFER_SIZE, executor, objectMapper, new SimpleMeterRegistry());
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void deliversEveryMessageInOrderToAllSubscribers() throws Exception {
+        warmUp();
+        var done = new CountDownLatch(SUBSCRIBERS);
+        List<List<Delivery>> received = new ArrayList<>();
+        for (var s = 0; s < SUBSCRIBERS; s++) {
+            List<Delivery> deliveries = Collections.synchronizedList(new ArrayList<>(MESSAGES));
+            received.add(deliveries);
+            // Подписчик только запоминает сообщение и время — разбор после замера
+            bus.subscribe(new RecordingSink(message -> {
+                deliveries.add(new Delivery(message, System.nanoTime()));
+                if (deliveries.size() == MESSAGES) {
+                    done.countDown();
+                }
+            }));
+        }
+        assertThat(bus.subscriberCount()).isEqualTo(SUBSCRIBERS);
+
+        var publishedAt = new long[MESSAGES];
+        for (var id = 0; id < MESSAGES; id++) {
+            publishedAt[id] = System.nanoTime();
+            bus.publish(change(id, 1));
+        }
+
+        assertThat(done.await(30, TimeUnit.SECONDS)).isTrue();
+        List<Long> expectedIds = new ArrayList<>();
+        for (long id = 0; id < MESSAGES; id++) {
+            expectedIds.add(id);
+        }
+        List<Long> latenciesNanos = new ArrayList<>(SUBSCRIBERS * MESSAGES);
+        for (var deliveries : received) {
+            List<Long> ids = new ArrayList<>(MESSAGES);
+            for (var delivery : deliveries) {
+                var id = objectMapper.readValue(delivery.json(), CalendarChangeDto.class).records().getFirst().recordId();
+                ids.add(id);
+                latenciesNanos.add(delivery.receivedAt() - publishedAt[Math.toIntExact(id)]);
+            }
+            assertThat(ids).containsExactlyElementsOf(expectedIds);
+        }
+
+        Collections.sort(latenciesNanos);
+        var p99 = latenciesNanos.get(latenciesNanos.size() * 99 / 100);
+        assertThat(TimeUnit.NANOSECONDS.toMillis(p99)).isLessThan(1_000);
+    }
+
+    @Test
+    void slowSubscriberIsDisconnectedWithoutDelayingOthers() throws Exception {
+        var release = new CountDownLatch(1);
+        var slowClosed = new CountDownLatch(1);
+        var overflowed = new AtomicInteger();
+        var slow = bus.subscribe(new CalendarEventBus.Sink() {
+            @Override
+            public void send(String json) throws Exception {
+                // Клиент перестал читать: запись в сокет висит
+                release.await();
+            }
+
+            @Override
+            public void close(boolean wasOverflowed) {
+                if (wasOverflowed) {
+                    overflowed.incrementAndGet();
+                }
+                slowClosed.countDown();
+            }
+        });
+
+        var fastDone = new CountDownLatch(SUBSCRIBERS);
+        List<CalendarEventBus.Subscription> fast = new ArrayList<>();
+        for (var s = 0; s < SUBSCRIBERS; s++) {
+            var count = new AtomicInteger();
+            fast.add(bus.subscribe(new RecordingSink(message -> {
+                if (count.incrementAndGet() == BUFFER_SIZE * 2) {
+                    fastDone.countDown();
+                }
+            })));
+        }
+
+        // Изменения приходят пачками меньше буфера; успевающие подписчики разбирают каждую
+        var burst = BUFFER_SIZE / 2;
+        for (long id = 0; id < BUFFER_SIZE * 2; id++) {
+            bus.publish(change(id, id));
+            // Медленный подписчик держит не больше BUFFER_SIZE сообщений
+            assertThat(slow.pending()).isLessThanOrEqualTo(BUFFER_SIZE);
+            if ((id + 1) % burst == 0) {
+                awaitDrained(fast);
+            }
+        }
+
+        assertThat(fastDone.await(30, TimeUnit.SECONDS)).isTrue();
+        assertThat(slowClosed.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(overflowed.get()).isEqualTo(1);
+        assertThat(slow.pending()).isZero();
+        assertThat(bus.subscriberCount()).isEqualTo(SUBSCRIBERS);
+        release.countDown();
+    }
+
+    @Test
+    void bufferedMessagesStayBoundedWhenNobodyReads() {
+        var release = new CountDownLatch(1);
+        List<CalendarEventBus.Subscription> subscriptions = new ArrayList<>();
+        for (var s = 0; s < SUBSCRIBERS; s++) {
+            subscriptions.add(bus.subscribe(new RecordingSink(message -> release.await())));
+        }
+
+        for (long id = 0; id < BUFFER_SIZE * 4; id++) {
+            bus.publish(change(id, id));
+            var buffered = subscriptions.stream().mapToLong(CalendarEventBus.Subscription::pending).sum();
+            assertThat(buffered).isLessThanOrEqualTo((long) SUBSCRIBERS * BUFFER_SIZE);
+        }
+        // Все отстали и отключены — сообщения больше никто не держит
+        assertThat(bus.subscriberCount()).isZero();
+        assertThat(subscriptions).allSatisfy(subscription -> assertThat(subscription.pending()).isZero());
+        release.countDown();
+    }
+
+    @Test
+    void failedOrCancelledSubscriberIsRemoved() throws Exception {
+        var failed = new CountDownLatch(1);
+        bus.subscribe(new RecordingSink(message -> {
+            failed.countDown();
+            throw new IOException("Broken pipe");
+        }));
+        var cancelled = bus.subscribe(new RecordingSink(message -> {
+        }));
+        cancelled.cancel();
+
+        bus.publish(change(1, 1));
+        assertThat(failed.await(5, TimeUnit.SECONDS)).isTrue();
+        for (var i = 0; i < 50 && bus.subscriberCount() > 0; i++) {
+            Thread.sleep(10);
+        }
+        assertThat(bus.subscriberCount()).isZero();
+    }
+
+    /**
+     * Тот же объём рассылки на отдельной шине — чтобы в замер задержки не попали загрузка классов и JIT
+     */
+    private void warmUp() throws InterruptedException {
+        var warmUpBus = new CalendarEventBus(BUFFER_SIZE, executor, objectMapper, new SimpleMeterRegistry());
+        var done = new CountDownLatch(SUBSCRIBERS * MESSAGES);
+        for (var s = 0; s < SUBSCRIBERS; s++) {
+            warmUpBus.subscribe(new RecordingSink(message -> done.countDown()));
+        }
+        for (var id = 0; id < MESSAGES; id++) {
+            warmUpBus.publish(change(id, 1));
+        }
+        assertThat(done.await(30, TimeUnit.SECONDS)).isTrue();
+    }
+
+    private static void awaitDrained(List<CalendarEventBus.Subscription> subscriptions) throws InterruptedException {
+        for (var i = 0; i < 1_000 && subscriptions.stream().anyMatch(subscription -> subscription.pending() > 0); i++) {
+            Thread.sleep(5);
+        }
+    }
+
+    private static CalendarChangeDto change(long recordId, long version) {
+        var date = LocalDate.of(2025, 3, 4);
+        return new CalendarChangeDto(Set.of(YearMonth.from(date)),
+                List.of(RecordChangeDto.toggled(recordId, version, date, true)));
+    }
+
+    private record Delivery(String json, long receivedAt) {
+    }
+
+    @FunctionalInterface
+    private interface MessageHandler {
+        void handle(String json) throws Exception;
+    }
+
+    private record RecordingSink(MessageHandler handler) implements CalendarEventBus.Sink {
+
+        @Override
+        public void send(String json) throws Exception {
+            handler.handle(json);
+        }
+
+        @Override
+        public void close(boolean overflowed) {
+        }
+    }
+}
@@ -0,0 +1,130 @@
+package ru.greemlab.neirocalendar.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.greemlab.neirocalendar.domain.dto.MutationOperationDto;
+import ru.greemlab.neirocalendar.domain.dto.MutationResultDto;
+import ru.greemlab.neirocalendar.domain.dto.MutationStatus;
+import ru.greemlab.neirocalendar.domain.dto.MutationType;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Пакетные изменения /mutations: повтор по ключу идемпотентности, конфликт версий,
+ * повтор отклонённой операции с тем же ключом. Нужна БД (DB_URL, DB_USER, DB_PASS);
+ * записи кладутся на один день 1901 года и удаляются после теста.
+ */
+@SpringBootTest
+class CalendarServiceMutationsTest {
+
+    private static final LocalDate DAY = LocalDate.of(1901, 2, 3);
+    private static final String PERSON = "Mutations test";
+
+    @Autowired
+    private CalendarService calendarService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    /**
+     * Префикс ключей теста — ключи не пересекаются с другими прогонами
+     */
+    private final String keyPrefix = "test-" + UUID.randomUUID() + "-";
+
+    @AfterEach
+    void cleanUp() {
+        jdbcTemplate.update("DELETE FROM attendance_mutations WHERE idempotency_key LIKE ?", keyPrefix + "%");
+        jdbcTemplate.update("DELETE FROM attendance_records WHERE visit_date = ?", Date.valueOf(DAY));
+        jdbcTemplate.update("DELETE FROM daily_rollups WHERE visit_date = ?", Date.valueOf(DAY));
+        // Человек остаётся в people: PersonDirectory только пополняется и помнит его id
+    }
+
+    @Test
+    void replayingSameKeyReturnsStoredResultWithoutApplyingAgain() {
+        var first = apply(create("create"));
+        var replay = apply(create("create"));
+
+        assertThat(first.status()).isEqualTo(MutationStatus.APPLIED);
+        assertThat(first.replayed()).isFalse();
+        assertThat(replay.status()).isEqualTo(MutationStatus.APPLIED);
+        assertThat(replay.replayed()).isTrue();
+        assertThat(replay.recordId()).isEqualTo(first.recordId());
+        assertThat(replay.version()).isEqualTo(first.version());
+        assertThat(recordCount()).isEqualTo(1);
+    }
+
+    @Test
+    void staleVersionIsConflictWithCurrentVersion() {
+        var created = apply(create("create"));
+
+        var result = apply(toggle("toggle", created.recordId(), created.version() + 1));
+
+        assertThat(result.status()).isEqualTo(MutationStatus.CONFLICT);
+        assertThat(result.recordId()).isEqualTo(created.recordId());
+        assertThat(result.version()).isEqualTo(created.version());
+        assertThat(attended(created.recordId())).isFalse();
+    }
+
+    @Test
+    void rejectedKeyCanBeRetried() {
+        var created = apply(create("create"));
+
+        // Конфликт не сохраняет результат — ключ освобождается
+        var conflict = apply(toggle("toggle", created.recordId(), created.version() + 1));
+        var retry = apply(toggle("toggle", created.recordId(), created.version()));
+        var replay = apply(toggle("toggle", created.recordId(), created.version()));
+
+        assertThat(conflict.status()).isEqualTo(MutationStatus.CONFLICT);
+        assertThat(retry.status()).isEqualTo(MutationStatus.APPLIED);
+        assertThat(retry.replayed()).isFalse();
+        assertThat(retry.version()).isEqualTo(created.version() + 1);
+        assertThat(replay.replayed()).isTrue();
+        assertThat(replay.version()).isEqualTo(retry.version());
+        assertThat(attended(created.recordId())).isTrue();
+    }
+
+    @Test
+    void invalidOperationDoesNotTakeKey() {
+        var created = apply(create("create"));
+
+        var invalid = apply(new MutationOperationDto(keyPrefix + "toggle", MutationType.TOGGLE,
+                created.recordId(), created.version(), null, null, null));
+        var retry = apply(toggle("toggle", created.recordId(), created.version()));
+
+        assertThat(invalid.status()).isEqualTo(MutationStatus.INVALID);
+        assertThat(retry.status()).isEqualTo(MutationStatus.APPLIED);
+        assertThat(retry.replayed()).isFalse();
+    }
+
+    private MutationResultDto apply(MutationOperationDto operation) {
+        var batch = calendarService.applyMutations(List.of(operation));
+        assertThat(batch.results()).hasSize(1);
+        return batch.results().getFirst();
+    }
+
+    private MutationOperationDto create(String key) {
+        return new MutationOperationDto(keyPrefix + key, MutationType.CREATE, null, null, PERSON, DAY, false);
+    }
+
+    private MutationOperationDto toggle(String key, Long recordId, Long expectedVersion) {
+        return new MutationOperationDto(keyPrefix + key, MutationType.TOGGLE, recordId, expectedVersion, null, null, true);
+    }
+
+    private int recordCount() {
+        return jdbcTemplate.queryForObject("SELECT count(*) FROM attendance_records WHERE visit_date = ?",
+                Integer.class, Date.valueOf(DAY));
+    }
+
+    private boolean attended(Long recordId) {
+        return jdbcTemplate.queryForObject("SELECT attended FROM attendance_records WHERE id = ?",
+                Boolean.class, recordId);
+    }
+}